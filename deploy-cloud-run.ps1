@@ -31,7 +31,7 @@ gcloud run deploy $Service `
   --allow-unauthenticated `
   --max-instances 3 `
   --port 8080 `
-  --set-env-vars "JAVA_OPTS=-Xms256m -Xmx512m"
+  --set-env-vars "JAVA_OPTS=-Xms256m -Xmx512m,SPRING_PROFILES_ACTIVE=prod"
 
 Write-Host "Done. Remember to set sensitive envs like INFLUX_TOKEN via Cloud Run > Service > Variables or Secrets."
 
@@ -0,0 +1,114 @@
+#!/usr/bin/env python3
+"""Fake fan bridge for load tests.
+
+Serves the same WebSocket protocol as the real Python bridge on
+ws://localhost:8765: pushes one JSON telemetry frame per tick to every
+connected client and applies control messages (mode / manual_pwm /
+thresholds) to the simulated fan.
+
+    pip install websockets
+    python3 bridge_sim.py --rate 20
+"""
+import argparse
+import asyncio
+import json
+import math
+import random
+import signal
+import time
+
+import websockets
+
+
+class Fan:
+    def __init__(self):
+        self.mode = "auto"
+        self.manual_pwm = 50
+        self.cpu_threshold = 60
+        self.gpu_threshold = 60
+        self.seq = 0
+
+    def apply(self, msg):
+        if "mode" in msg:
+            self.mode = str(msg["mode"]).lower()
+        if "manual_pwm" in msg:
+            self.manual_pwm = int(msg["manual_pwm"])
+        if "cpu_threshold" in msg:
+            self.cpu_threshold = int(msg["cpu_threshold"])
+        if "gpu_threshold" in msg:
+            self.gpu_threshold = int(msg["gpu_threshold"])
+
+    def frame(self):
+        self.seq += 1
+        t = time.time()
+        cpu = 55 + 15 * math.sin(t / 7) + random.uniform(-2, 2)
+        gpu = 50 + 20 * math.sin(t / 11) + random.uniform(-2, 2)
+        if self.mode == "manual":
+            pwm = self.manual_pwm
+        elif self.mode == "range":
+            pwm = 100 if cpu > self.cpu_threshold or gpu > self.gpu_threshold else 30
+        else:
+            pwm = int(min(100, max(20, (max(cpu, gpu) - 40) * 3)))
+        return {
+            "seq": self.seq,
+            "ts": round(t, 3),
+            "cpuTemp": round(cpu, 1),
+            "gpuTemp": round(gpu, 1),
+            "pwm_value": pwm,
+            "model_result": 0 if max(cpu, gpu) > 85 else 1,
+            "mode": self.mode,
+        }
+
+
+async def main():
+    p = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    p.add_argument("--host", default="localhost")
+    p.add_argument("--port", type=int, default=8765)
+    p.add_argument("--rate", type=float, default=10.0, help="frames per second")
+    args = p.parse_args()
+
+    fan = Fan()
+    clients = set()
+    stats = {"frames": 0, "controls": 0}
+
+    async def handler(ws):
+        clients.add(ws)
+        try:
+            async for raw in ws:
+                try:
+                    fan.apply(json.loads(raw))
+                    stats["controls"] += 1
+                except (ValueError, TypeError):
+                    pass
+        finally:
+            clients.discard(ws)
+
+    stop = asyncio.get_running_loop().create_future()
+    for sig in (signal.SIGINT, signal.SIGTERM):
+        try:
+            asyncio.get_running_loop().add_signal_handler(sig, stop.cancel)
+        except NotImplementedError:  # Windows
+            pass
+
+    async with websockets.serve(handler, args.host, args.port):
+        print(f"bridge_sim listening on ws://{args.host}:{args.port} at {args.rate}/s", flush=True)
+        interval = 1.0 / args.rate
+        next_tick = time.monotonic()
+        try:
+            while not stop.done():
+                if clients:
+                    websockets.broadcast(clients, json.dumps(fan.frame()))
+                    stats["frames"] += 1
+                next_tick += interval
+                await asyncio.sleep(max(0.0, next_tick - time.monotonic()))
+        except asyncio.CancelledError:
+            pass
+    # LoadTest 가 이 줄을 읽어 보고서에 브리지 송신 프레임 수를 씁니다.
+    print(f"bridge_sim frames={stats['frames']} controls={stats['controls']}", flush=True)
+
+
+if __name__ == "__main__":
+    try:
+        asyncio.run(main())
+    except KeyboardInterrupt:
+        pass
@@ -0,0 +1,96 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 대상 앱 HTTP 호출 (로그인, 텔레메트리 조회, Prometheus 수집)
+ */
+final class AppClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String base;
+    private final HttpClient http;
+
+    AppClient(String base) {
+        this.base = base;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /** /user/api/login → JWT (실패 시 IOException) */
+    String apiLogin(String user, String password) throws IOException, InterruptedException {
+        HttpResponse<String> res = postLogin(user, password);
+        JsonNode body = MAPPER.readTree(res.body());
+        if (!body.path("success").asBoolean()) throw new IOException("login failed: " + body.path("message").asText());
+        return body.path("data").path("token").asText();
+    }
+
+    HttpResponse<String> postLogin(String user, String password) throws IOException, InterruptedException {
+        String json = MAPPER.writeValueAsString(Map.of("username", user, "password", password));
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/user/api/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * 폼 로그인(/user/login) → 세션 쿠키 "JSESSIONID=..."
+     * STOMP 핸드셰이크에 실어 보내면 세션의 권한(role)으로 제어 명령이 처리됩니다.
+     */
+    String formLogin(String user, String password) throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(user, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/user/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+        String location = res.headers().firstValue("Location").orElse("");
+        if (res.statusCode() != 302 || !location.contains("/fan")) throw new IOException("form login failed: " + res.statusCode());
+        return res.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.split(";", 2)[0])
+                .findFirst()
+                .orElseThrow(() -> new IOException("no session cookie"));
+    }
+
+    /** @param waitForChangeAfter 롱폴링 커서 (따옴표 뺀 ETag), null 이면 일반 폴링 */
+    HttpResponse<String> telemetry(String token, String etag, String waitForChangeAfter) throws IOException, InterruptedException {
+        String url = base + "/api/telemetry" + (waitForChangeAfter == null ? ""
+                : "?waitForChangeAfter=" + URLEncoder.encode(waitForChangeAfter, StandardCharsets.UTF_8) + "&timeout=30000");
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(40))
+                .header("Authorization", "Bearer " + token);
+        if (etag != null) b.header("If-None-Match", etag);
+        return http.send(b.GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** /actuator/prometheus 는 인증 필요: apiLogin 으로 받은 JWT 를 씀 */
+    String prometheus(String token) throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/actuator/prometheus"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) throw new IOException("prometheus scrape: " + res.statusCode());
+        return res.body();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * bridge_sim.py 하위 프로세스. 종료 시 시뮬레이터가 출력하는 송신 프레임 수를 읽습니다.
+ */
+final class BridgeProcess implements AutoCloseable {
+
+    private static final Pattern FRAMES = Pattern.compile("bridge_sim frames=(\\d+)");
+
+    private final Process process;
+    private volatile long framesSent = -1;
+
+    private BridgeProcess(Process process) {
+        this.process = process;
+        Thread t = new Thread(this::pump, "bridge-sim-out");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    static BridgeProcess start(Options o) throws IOException {
+        File script = new File("bridge_sim.py");
+        if (!script.isFile()) script = new File("loadtest/bridge_sim.py");
+        if (!script.isFile()) throw new IOException("bridge_sim.py not found (run from the loadtest directory or use --bridge=none)");
+        Process p = new ProcessBuilder(o.python(), "-u", script.getPath(),
+                "--rate", Double.toString(o.bridgeRate()), "--port", Integer.toString(o.bridgePort()))
+                .redirectErrorStream(true)
+                .start();
+        return new BridgeProcess(p);
+    }
+
+    private void pump() {
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                System.out.println("[bridge] " + line);
+                Matcher m = FRAMES.matcher(line);
+                if (m.find()) framesSent = Long.parseLong(m.group(1));
+            }
+        } catch (IOException ignore) {
+        }
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /** 시뮬레이터가 보낸 전체 프레임 수 (close 이후, 알 수 없으면 -1) */
+    long framesSent() {
+        return framesSent;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy(); // SIGTERM → 시뮬레이터가 통계를 출력하고 종료
+        if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+        Thread.sleep(200); // 출력 스레드가 마지막 줄을 읽을 시간
+    }
+}
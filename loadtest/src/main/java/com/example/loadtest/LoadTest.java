@@ -0,0 +1,120 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 부하 테스트 진입점
+ * - (선택) bridge_sim.py 를 띄워 앱의 fan.bridge.wsUrl 로 텔레메트리를 흘려 보냅니다.
+ * - STOMP 구독자 / 제어 클라이언트 / REST 폴러 / 로그인 클라이언트를 동시에 돌리고
+ *   처리량, 푸시 지연 백분위, 놓친 버전 수, 서버 힙/GC 를 보고합니다.
+ *
+ * 앱은 따로 실행해 둡니다: ./gradlew bootRun (또는 docker run ...)
+ * 실행 예: ./gradlew :loadtest:run --args='--subscribers=200 --pollers=50 --duration=120'
+ */
+public final class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Options o = Options.parse(args);
+        Results results = new Results();
+        ServerMetrics server = new ServerMetrics();
+        AppClient app = new AppClient(o.base());
+
+        BridgeProcess bridge = o.spawnBridge() ? BridgeProcess.start(o) : null;
+        ScheduledExecutorService scraper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "prometheus-scrape");
+            t.setDaemon(true);
+            return t;
+        });
+        long startedAt = System.currentTimeMillis();
+        try (StompLoad stomp = new StompLoad(o, results);
+             RestLoad rest = new RestLoad(o, results, app)) {
+
+            String token = app.apiLogin(o.user(), o.password()); // REST 폴링/제어 + Prometheus 수집
+            String session = o.controllers() > 0 ? app.formLogin(o.user(), o.password()) : null;
+
+            log("connecting %d subscribers, %d controllers", o.subscribers(), o.controllers());
+            stomp.startSubscribers(o.subscribers());
+            stomp.startControllers(o.controllers(), o.controlRate(), session, token);
+            rest.startPollers(o.pollers(), token);
+            rest.startLoginClients(o.loginClients());
+
+            log("warming up %ds", o.warmupSeconds());
+            Thread.sleep(o.warmupSeconds() * 1000);
+
+            results.recording = true;
+            scraper.scheduleAtFixedRate(() -> {
+                try { server.add(ServerMetrics.Scrape.parse(app.prometheus(token))); } catch (Exception e) { server.failed(); }
+            }, 0, o.scrapeIntervalMillis(), TimeUnit.MILLISECONDS);
+            long measureStart = System.nanoTime();
+            log("measuring %ds", o.durationSeconds());
+            for (long s = 1; s <= o.durationSeconds(); s++) {
+                Thread.sleep(1000);
+                if (s % 10 == 0) log("%ds: %d messages, %d polls", s, results.messages.sum(), results.polls.sum());
+                if (bridge != null && !bridge.isAlive()) log("bridge simulator exited early");
+            }
+            scraper.shutdown();
+            scraper.awaitTermination(10, TimeUnit.SECONDS);
+            try { server.add(ServerMetrics.Scrape.parse(app.prometheus(token))); } catch (Exception e) { server.failed(); }
+            results.recording = false;
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+            if (bridge != null) bridge.close();
+            report(o, results, server, bridge, seconds, (System.currentTimeMillis() - startedAt) / 1000.0);
+        } finally {
+            scraper.shutdownNow();
+            if (bridge != null && bridge.isAlive()) bridge.close();
+        }
+        System.exit(0);
+    }
+
+    private static void report(Options o, Results results, ServerMetrics server, BridgeProcess bridge,
+                               double seconds, double totalSeconds) throws Exception {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("base", o.base());
+        config.put("subscribers", o.subscribers());
+        config.put("controllers", o.controllers());
+        config.put("controlRate", o.controlRate());
+        config.put("pollers", o.pollers());
+        config.put("longPoll", o.longPoll());
+        config.put("loginClients", o.loginClients());
+        config.put("durationSeconds", Results.round(seconds));
+
+        Map<String, Object> bridgeMap = new LinkedHashMap<>();
+        if (bridge != null && bridge.framesSent() >= 0) {
+            bridgeMap.put("framesSent", bridge.framesSent());
+            bridgeMap.put("framesPerSec", Results.round(bridge.framesSent() / totalSeconds));
+        }
+        long versions = server.versionsPublished();
+        if (versions >= 0) {
+            // 브리지 프레임 중 UI 스냅샷 버전으로 이어진 비율 (나머지는 1초 주기 갱신에 합쳐지거나 내용이 같아 생략됨)
+            bridgeMap.put("snapshotVersionsPerSec", Results.round(versions / seconds));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("bridge", bridgeMap);
+        report.putAll(results.toMap(seconds));
+        report.put("server", server.toMap());
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(mapper.writeValueAsString(report));
+        if (o.out() != null) {
+            mapper.writeValue(new File(o.out()), report);
+            log("report written to %s", o.out());
+        }
+    }
+
+    private static void log(String fmt, Object... args) {
+        System.out.printf("[loadtest] " + fmt + "%n", args);
+    }
+
+    private LoadTest() {}
+}
@@ -0,0 +1,84 @@
+package com.example.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션 (--key=value)
+ */
+record Options(
+        String base,
+        String user,
+        String password,
+        int subscribers,
+        int controllers,
+        double controlRate,
+        int pollers,
+        long pollIntervalMillis,
+        boolean longPoll,
+        int loginClients,
+        long durationSeconds,
+        long warmupSeconds,
+        long scrapeIntervalMillis,
+        boolean spawnBridge,
+        double bridgeRate,
+        int bridgePort,
+        String python,
+        String out
+) {
+
+    static final String USAGE = """
+            usage: LoadTest [--key=value ...]
+              --base=http://localhost:8080   대상 앱
+              --user=hong --password=pass123 제어/REST 용 계정 (MANUAL 제어는 ADMIN 필요)
+              --subscribers=50               /topic/telemetry STOMP 구독자 수
+              --controllers=2                /ws/control 송신 클라이언트 수
+              --controlRate=1                클라이언트당 초당 제어 명령 수
+              --pollers=10                   /api/telemetry REST 폴러 수
+              --pollIntervalMillis=1000      일반 폴링 간격 (If-None-Match 사용)
+              --longPoll=false               true 면 waitForChangeAfter 롱폴링
+              --loginClients=0               /user/api/login 을 반복 호출하는 클라이언트 수
+              --duration=60 --warmup=5       측정 시간 / 측정 전 준비 시간 (초)
+              --scrapeIntervalMillis=2000    /actuator/prometheus 수집 간격
+              --bridge=spawn|none            bridge_sim.py 를 직접 띄울지 여부
+              --bridgeRate=10 --bridgePort=8765 --python=python3
+              --out=report.json              결과 JSON 저장 (선택)
+            """;
+
+    static Options parse(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            if (a.equals("--help") || a.equals("-h")) {
+                System.out.println(USAGE);
+                System.exit(0);
+            }
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("bad argument: " + a + "\n" + USAGE);
+            int eq = a.indexOf('=');
+            m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return new Options(
+                m.getOrDefault("base", "http://localhost:8080").replaceAll("/+$", ""),
+                m.getOrDefault("user", "hong"),
+                m.getOrDefault("password", "pass123"),
+                Integer.parseInt(m.getOrDefault("subscribers", "50")),
+                Integer.parseInt(m.getOrDefault("controllers", "2")),
+                Double.parseDouble(m.getOrDefault("controlRate", "1")),
+                Integer.parseInt(m.getOrDefault("pollers", "10")),
+                Long.parseLong(m.getOrDefault("pollIntervalMillis", "1000")),
+                Boolean.parseBoolean(m.getOrDefault("longPoll", "false")),
+                Integer.parseInt(m.getOrDefault("loginClients", "0")),
+                Long.parseLong(m.getOrDefault("duration", "60")),
+                Long.parseLong(m.getOrDefault("warmup", "5")),
+                Long.parseLong(m.getOrDefault("scrapeIntervalMillis", "2000")),
+                !"none".equals(m.getOrDefault("bridge", "spawn")),
+                Double.parseDouble(m.getOrDefault("bridgeRate", "10")),
+                Integer.parseInt(m.getOrDefault("bridgePort", "8765")),
+                m.getOrDefault("python", "python3"),
+                m.get("out"));
+    }
+
+    String wsUrl() {
+        // SockJS 엔드포인트의 raw WebSocket 전송 경로
+        return base.replaceFirst("^http", "ws") + "/ws-endpoint/websocket";
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.loadtest;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 페이지 로드 측정: /fan, /qa 의 TTFB/전체 시간/전송 크기와 페이지가 참조하는 정적 리소스의 캐시 헤더
+ * - 앱을 기본 프로파일과 prod 프로파일로 각각 띄워 두 결과를 비교합니다.
+ * - 서버 기동 시간은 /actuator/prometheus 의 application_ready_time_seconds 를 읽습니다.
+ *
+ * 실행 예: ./gradlew :loadtest:pageTiming --args='--base=http://localhost:8080 --requests=200'
+ */
+public final class PageTiming {
+
+    private static final Pattern LOCAL_ASSET = Pattern.compile("(?:src|href)=\"(/(?:js|css)/[^\"]+|/favicon[^\"]*)\"");
+
+    public static void main(String[] args) throws Exception {
+        String base = "http://localhost:8080";
+        String user = "hong", password = "pass123";
+        int requests = 100;
+        for (String a : args) {
+            if (a.startsWith("--base=")) base = a.substring(7).replaceAll("/+$", "");
+            else if (a.startsWith("--user=")) user = a.substring(7);
+            else if (a.startsWith("--password=")) password = a.substring(11);
+            else if (a.startsWith("--requests=")) requests = Integer.parseInt(a.substring(11));
+        }
+        AppClient app = new AppClient(base);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String cookie = app.formLogin(user, password);
+
+        try {
+            String ready = prometheusValue(app.prometheus(app.apiLogin(user, password)), "application_ready_time_seconds");
+            System.out.printf("startup: application ready in %s s%n", ready == null ? "?" : ready);
+        } catch (Exception e) {
+            System.out.println("startup: prometheus not reachable (" + e.getMessage() + ")");
+        }
+
+        for (String path : new String[]{"/fan", "/qa"}) {
+            Samples ttfb = new Samples();
+            Samples total = new Samples();
+            long bytes = 0;
+            String html = null;
+            for (int i = 0; i < requests; i++) {
+                HttpRequest req = HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Cookie", cookie)
+                        .header("Accept-Encoding", "gzip")
+                        .GET().build();
+                long start = System.nanoTime();
+                HttpResponse<InputStream> res = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+                long headersAt = System.nanoTime();
+                byte[] body;
+                try (InputStream in = res.body()) { body = in.readAllBytes(); }
+                long end = System.nanoTime();
+                ttfb.add((headersAt - start) / 1_000_000);
+                total.add((end - start) / 1_000_000);
+                bytes = body.length;
+                if (html == null && !"gzip".equals(res.headers().firstValue("Content-Encoding").orElse(""))) {
+                    html = new String(body, StandardCharsets.UTF_8);
+                }
+            }
+            System.out.printf("%-4s ttfbMs=%s totalMs=%s wireBytes=%d%n", path, ttfb.summary(), total.summary(), bytes);
+            if (html == null) html = plainHtml(http, base + path, cookie);
+            for (String asset : assets(html)) printAsset(http, base, asset);
+        }
+    }
+
+    private static String plainHtml(HttpClient http, String url, String cookie) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url)).header("Cookie", cookie).GET().build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static Set<String> assets(String html) {
+        Set<String> out = new LinkedHashSet<>();
+        Matcher m = LOCAL_ASSET.matcher(html);
+        while (m.find()) out.add(m.group(1));
+        return out;
+    }
+
+    private static void printAsset(HttpClient http, String base, String path) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + path)).header("Accept-Encoding", "gzip").GET().build();
+        HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        Map<String, List<String>> h = res.headers().map();
+        System.out.printf("  %-40s %d bytes=%d encoding=%s cache-control=%s%n", path, res.statusCode(), res.body().length,
+                h.getOrDefault("content-encoding", List.of("-")).get(0),
+                h.getOrDefault("cache-control", List.of("-")).get(0));
+    }
+
+    private static String prometheusValue(String text, String metric) {
+        for (String line : text.split("\n")) {
+            if (line.startsWith(metric)) return line.substring(line.lastIndexOf(' ') + 1);
+        }
+        return null;
+    }
+
+    private PageTiming() {}
+}
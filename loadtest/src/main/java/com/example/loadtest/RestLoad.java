@@ -0,0 +1,104 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REST 부하: /api/telemetry 폴러와 /user/api/login 반복 호출
+ */
+final class RestLoad implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Options options;
+    private final Results results;
+    private final AppClient app;
+    private final ExecutorService pool;
+    private volatile boolean running = true;
+
+    RestLoad(Options options, Results results, AppClient app) {
+        this.options = options;
+        this.results = results;
+        this.app = app;
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "rest-load-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void startPollers(int n, String token) {
+        for (int i = 0; i < n; i++) pool.execute(() -> poll(token));
+    }
+
+    void startLoginClients(int n) {
+        for (int i = 0; i < n; i++) pool.execute(this::loginLoop);
+    }
+
+    // 일반 폴링: If-None-Match 로 304 를 받고 간격만큼 쉼 / 롱폴링: 받은 버전 이후 변경을 바로 다시 기다림
+    private void poll(String token) {
+        String etag = null;
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                // 롱폴링 커서 = 따옴표 뺀 ETag (첫 요청은 일반 폴링으로 현재 스냅샷과 ETag 를 받음)
+                String cursor = options.longPoll() && etag != null ? etag.replace("W/", "").replace("\"", "") : null;
+                HttpResponse<String> res = app.telemetry(token, etag, cursor);
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                if (results.on()) {
+                    results.polls.increment();
+                    if (res.statusCode() == 200) results.polls200.increment();
+                    else if (res.statusCode() == 304) results.polls304.increment();
+                    else results.pollErrors.increment();
+                    // 롱폴링 대기 시간은 지연이 아니므로 일반 폴링만 기록
+                    if (!options.longPoll()) results.pollLatency.add(ms);
+                }
+                etag = res.headers().firstValue("ETag").orElse(etag);
+                if (!options.longPoll()) Thread.sleep(options.pollIntervalMillis());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (results.on()) results.pollErrors.increment();
+                sleepQuietly(500);
+            }
+        }
+    }
+
+    private void loginLoop() {
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> res = app.postLogin(options.user(), options.password());
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                boolean ok = MAPPER.readTree(res.body()).path("success").asBoolean();
+                if (results.on()) {
+                    results.logins.increment();
+                    (ok ? results.loginOk : results.loginRejected).increment();
+                    results.loginLatency.add(ms);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (results.on()) results.loginRejected.increment();
+                sleepQuietly(500);
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try { Thread.sleep(millis); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 측정 결과 누적. recording 이 켜진 동안(준비 시간 이후)만 기록합니다.
+ */
+final class Results {
+
+    volatile boolean recording;
+
+    // STOMP 구독
+    final LongAdder messages = new LongAdder();
+    final LongAdder newVersions = new LongAdder();
+    final LongAdder repeatedVersions = new LongAdder(); // 같은 버전 재전송 (pushTelemetry 매 틱 브로드캐스트)
+    final LongAdder missedVersions = new LongAdder();   // 구독자가 건너뛴 버전 수 (버전 간격)
+    final LongAdder unversioned = new LongAdder();      // version 없는 메시지 (낙관적 업데이트 등)
+    final LongAdder errorMessages = new LongAdder();    // {"error": ...} 브로드캐스트
+    final Samples publishToClient = new Samples();      // trace.publishedAt → 수신
+    final Samples originToClient = new Samples();       // trace.originAt(브리지 ts) → 수신
+
+    // 제어
+    final LongAdder controlsSent = new LongAdder();
+    final LongAdder controlErrors = new LongAdder();
+
+    // REST 폴링
+    final LongAdder polls = new LongAdder();
+    final LongAdder polls200 = new LongAdder();
+    final LongAdder polls304 = new LongAdder();
+    final LongAdder pollErrors = new LongAdder();
+    final Samples pollLatency = new Samples();
+
+    // 로그인
+    final LongAdder logins = new LongAdder();
+    final LongAdder loginOk = new LongAdder();
+    final LongAdder loginRejected = new LongAdder();
+    final Samples loginLatency = new Samples();
+
+    boolean on() {
+        return recording;
+    }
+
+    Map<String, Object> toMap(double seconds) {
+        Map<String, Object> stomp = new LinkedHashMap<>();
+        stomp.put("messages", messages.sum());
+        stomp.put("messagesPerSec", round(messages.sum() / seconds));
+        stomp.put("newVersions", newVersions.sum());
+        stomp.put("repeatedVersions", repeatedVersions.sum());
+        stomp.put("missedVersions", missedVersions.sum());
+        stomp.put("unversioned", unversioned.sum());
+        stomp.put("errorMessages", errorMessages.sum());
+        stomp.put("publishToClientMs", publishToClient.summary());
+        stomp.put("originToClientMs", originToClient.summary());
+
+        Map<String, Object> control = new LinkedHashMap<>();
+        control.put("sent", controlsSent.sum());
+        control.put("sentPerSec", round(controlsSent.sum() / seconds));
+        control.put("errors", controlErrors.sum());
+
+        Map<String, Object> rest = new LinkedHashMap<>();
+        rest.put("requests", polls.sum());
+        rest.put("requestsPerSec", round(polls.sum() / seconds));
+        rest.put("status200", polls200.sum());
+        rest.put("status304", polls304.sum());
+        rest.put("errors", pollErrors.sum());
+        rest.put("latencyMs", pollLatency.summary());
+
+        Map<String, Object> login = new LinkedHashMap<>();
+        login.put("requests", logins.sum());
+        login.put("ok", loginOk.sum());
+        login.put("rejected", loginRejected.sum());
+        login.put("latencyMs", loginLatency.summary());
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("stomp", stomp);
+        m.put("control", control);
+        m.put("rest", rest);
+        m.put("login", login);
+        return m;
+    }
+
+    static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+}
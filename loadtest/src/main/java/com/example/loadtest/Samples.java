@@ -0,0 +1,42 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 지연 샘플(ms) 모음. 측정 구간 전체를 보관했다가 끝에서 정렬해 백분위를 계산합니다.
+ */
+final class Samples {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    synchronized void add(long millis) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = millis;
+    }
+
+    synchronized int count() {
+        return size;
+    }
+
+    synchronized Map<String, Object> summary() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", size);
+        if (size == 0) return m;
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        m.put("p50", percentile(sorted, 50));
+        m.put("p90", percentile(sorted, 90));
+        m.put("p99", percentile(sorted, 99));
+        m.put("p999", percentile(sorted, 99.9));
+        m.put("max", sorted[size - 1]);
+        return m;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/prometheus 수집 결과에서 힙/GC/스레드/스냅샷 버전을 뽑아 측정 구간의 변화량과 최대값을 계산합니다.
+ */
+final class ServerMetrics {
+
+    /** 한 번의 수집 결과 */
+    record Scrape(double heapUsed, double heapMax, double gcCount, double gcSeconds,
+                  double liveThreads, double cpuUsage, double snapshotVersion) {
+
+        static Scrape parse(String text) {
+            double heapUsed = 0, heapMax = 0, gcCount = 0, gcSeconds = 0, threads = 0, cpu = 0, version = 0;
+            for (String line : text.split("\n")) {
+                if (line.isEmpty() || line.charAt(0) == '#') continue;
+                int sp = line.lastIndexOf(' ');
+                if (sp < 0) continue;
+                double v;
+                try { v = Double.parseDouble(line.substring(sp + 1)); } catch (NumberFormatException e) { continue; }
+                if (Double.isNaN(v)) continue;
+                String key = line.substring(0, sp);
+                if (key.startsWith("jvm_memory_used_bytes{") && key.contains("area=\"heap\"")) heapUsed += v;
+                else if (key.startsWith("jvm_memory_max_bytes{") && key.contains("area=\"heap\"") && v > 0) heapMax += v;
+                else if (key.startsWith("jvm_gc_pause_seconds_count")) gcCount += v;
+                else if (key.startsWith("jvm_gc_pause_seconds_sum")) gcSeconds += v;
+                else if (key.startsWith("jvm_threads_live_threads")) threads = v;
+                else if (key.startsWith("process_cpu_usage")) cpu = v;
+                else if (key.startsWith("fan_telemetry_snapshot_version")) version = v;
+            }
+            return new Scrape(heapUsed, heapMax, gcCount, gcSeconds, threads, cpu, version);
+        }
+    }
+
+    private Scrape first;
+    private Scrape last;
+    private double peakHeap;
+    private double peakThreads;
+    private double cpuSum;
+    private int samples;
+    private int failures;
+
+    synchronized void add(Scrape s) {
+        if (first == null) first = s;
+        last = s;
+        peakHeap = Math.max(peakHeap, s.heapUsed());
+        peakThreads = Math.max(peakThreads, s.liveThreads());
+        cpuSum += s.cpuUsage();
+        samples++;
+    }
+
+    synchronized void failed() {
+        failures++;
+    }
+
+    /** 측정 구간 동안 서버가 발행한 스냅샷 버전 수 (수집 실패 시 -1) */
+    synchronized long versionsPublished() {
+        return first == null ? -1 : (long) (last.snapshotVersion() - first.snapshotVersion());
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("scrapes", samples);
+        m.put("scrapeFailures", failures);
+        if (first == null) return m;
+        m.put("heapPeakMb", Results.round(peakHeap / 1024 / 1024));
+        m.put("heapEndMb", Results.round(last.heapUsed() / 1024 / 1024));
+        m.put("heapMaxMb", Results.round(last.heapMax() / 1024 / 1024));
+        m.put("gcPauses", (long) (last.gcCount() - first.gcCount()));
+        m.put("gcPauseMs", Results.round((last.gcSeconds() - first.gcSeconds()) * 1000));
+        m.put("threadsPeak", (long) peakThreads);
+        m.put("cpuAvg", Results.round(cpuSum / samples * 100) + "%");
+        m.put("snapshotVersions", versionsPublished());
+        return m;
+    }
+}
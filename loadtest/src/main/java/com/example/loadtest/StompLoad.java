@@ -0,0 +1,143 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP 부하: /topic/telemetry 구독자와 /ws/control 송신 클라이언트
+ */
+final class StompLoad implements AutoCloseable {
+
+    private final Options options;
+    private final Results results;
+    private final WebSocketStompClient client;
+    private final ThreadPoolTaskScheduler scheduler;
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+
+    StompLoad(Options options, Results results) {
+        this.options = options;
+        this.results = results;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        scheduler.setThreadNamePrefix("stomp-load-");
+        scheduler.initialize();
+        this.client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setTaskScheduler(scheduler);
+        client.setInboundMessageSizeLimit(256 * 1024);
+    }
+
+    /** 구독자 n 개 연결 (익명) */
+    void startSubscribers(int n) throws Exception {
+        for (int i = 0; i < n; i++) {
+            StompSession s = connect(new WebSocketHttpHeaders(), new StompHeaders());
+            s.subscribe("/topic/telemetry", new TelemetryHandler());
+        }
+    }
+
+    /**
+     * 제어 클라이언트 n 개 연결. 세션 쿠키/JWT 로 인증해 MANUAL 명령이 권한 검사에 걸리지 않게 합니다.
+     * 각 클라이언트는 초당 rate 개의 SPEED 명령을 보냅니다. (10% 는 AUTOMATIC)
+     */
+    void startControllers(int n, double rate, String sessionCookie, String token) throws Exception {
+        if (n <= 0 || rate <= 0) return;
+        long periodMicros = (long) (1_000_000 / rate);
+        for (int i = 0; i < n; i++) {
+            WebSocketHttpHeaders http = new WebSocketHttpHeaders();
+            if (sessionCookie != null) http.add("Cookie", sessionCookie);
+            StompHeaders connect = new StompHeaders();
+            if (token != null) connect.add("Authorization", "Bearer " + token);
+            StompSession s = connect(http, connect);
+            scheduler.getScheduledExecutor().scheduleAtFixedRate(() -> sendControl(s),
+                    ThreadLocalRandom.current().nextLong(periodMicros), periodMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void sendControl(StompSession s) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        Map<String, Object> body = r.nextInt(10) == 0
+                ? Map.of("dimension", "SPEED", "mode", "AUTOMATIC")
+                : Map.of("dimension", "SPEED", "mode", "MANUAL", "pwm", r.nextInt(20, 101));
+        try {
+            s.send("/ws/control", body);
+            if (results.on()) results.controlsSent.increment();
+        } catch (Exception e) {
+            if (results.on()) results.controlErrors.increment();
+        }
+    }
+
+    private StompSession connect(WebSocketHttpHeaders http, StompHeaders connect) throws Exception {
+        StompSession s = client.connectAsync(options.wsUrl(), http, connect, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                System.err.println("[stomp] transport error: " + exception);
+            }
+        }).get(10, TimeUnit.SECONDS);
+        sessions.add(s);
+        return s;
+    }
+
+    @Override
+    public void close() {
+        for (StompSession s : sessions) {
+            try { s.disconnect(); } catch (Exception ignore) {}
+        }
+        client.stop();
+        scheduler.shutdown();
+    }
+
+    /** 구독자 1명의 수신 처리: 버전 간격/반복과 trace 기반 지연 기록 */
+    private final class TelemetryHandler extends StompSessionHandlerAdapter {
+        private long lastVersion;
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long now = System.currentTimeMillis();
+            if (!(payload instanceof JsonNode n)) return;
+            boolean on = results.on();
+            if (on) results.messages.increment();
+            if (n.has("error")) {
+                if (on) results.errorMessages.increment();
+                return;
+            }
+            long v = n.path("version").asLong(0);
+            if (v == 0) {
+                if (on) results.unversioned.increment();
+                return;
+            }
+            long prev = lastVersion;
+            if (v <= prev) {
+                if (on) results.repeatedVersions.increment();
+                return;
+            }
+            lastVersion = v;
+            if (!on) return;
+            results.newVersions.increment();
+            if (prev > 0 && v > prev + 1) results.missedVersions.add(v - prev - 1);
+            JsonNode trace = n.path("trace");
+            long publishedAt = trace.path("publishedAt").asLong(0);
+            long originAt = trace.path("originAt").asLong(0);
+            if (publishedAt > 0) results.publishToClient.add(Math.max(0, now - publishedAt));
+            if (originAt > 0) results.originToClient.add(Math.max(0, now - originAt));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Answer;
+import com.example.demo.model.Question;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QaRepository 조회/행 매핑 벤치마크 (H2 메모리 DB, 앱과 같은 schema.sql)
+ * - 질문 QUESTIONS 개, 질문마다 답변 ANSWERS_PER_QUESTION 개를 미리 넣어 둡니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QaRepositoryBenchmark {
+
+    private static final int QUESTIONS = 200;
+    private static final int ANSWERS_PER_QUESTION = 5;
+
+    private QaRepository repository;
+    private Long questionId;
+
+    @Setup
+    public void setup() {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:jmh-qa;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        repository = new QaRepository(new JdbcTemplate(ds), new SimpleMeterRegistry());
+        for (int i = 0; i < QUESTIONS; i++) {
+            Question q = new Question();
+            q.setUserId(1L);
+            q.setUsername("hong");
+            q.setTitle("팬 속도 질문 " + i);
+            q.setContent("GPU 온도가 " + (50 + i % 30) + "도일 때 PWM 이 얼마가 적당한가요?");
+            q.setTags(i % 2 == 0 ? "fan,gpu" : "fan,cpu");
+            q = repository.saveQuestion(q);
+            if (questionId == null) questionId = q.getId();
+            for (int j = 0; j < ANSWERS_PER_QUESTION; j++) {
+                Answer a = new Answer();
+                a.setQuestionId(q.getId());
+                a.setUserId(2L);
+                a.setUsername("kim");
+                a.setContent("답변 " + j);
+                repository.saveAnswer(a);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Question> searchRecent() {
+        return repository.search(null, null, "recent");
+    }
+
+    @Benchmark
+    public List<Question> searchKeyword() {
+        return repository.search("GPU", "gpu", "views");
+    }
+
+    @Benchmark
+    public List<Answer> findAnswers() {
+        return repository.findAnswers(questionId);
+    }
+}
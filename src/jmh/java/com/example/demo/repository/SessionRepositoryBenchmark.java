@@ -0,0 +1,64 @@
+package com.example.demo.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션 조회 요청당 비용 (H2 메모리 DB, 앱과 같은 schema.sql, 목표 1ms 미만)
+ * - lookupCached   : 캐시 적중 조회 + 접근 시각만 바뀐 저장 (대부분의 요청)
+ * - lookupUncached : 캐시 없이 매번 DB 조회 + 역직렬화 (다른 인스턴스로 처음 온 요청, cacheTtlMillis 경과)
+ * 세션 속성은 폼 로그인 후와 같게 userId / username / role / SecurityContext 를 넣습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionRepositoryBenchmark {
+
+    private JdbcSessionRepository cached;
+    private JdbcSessionRepository uncached;
+    private String sessionId;
+
+    @Setup
+    public void setup() {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:jmh-session;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        cached = new JdbcSessionRepository(jdbc, Duration.ofMinutes(30), 5000, new SimpleMeterRegistry());
+        uncached = new JdbcSessionRepository(jdbc, Duration.ofMinutes(30), 0, new SimpleMeterRegistry());
+
+        MapSession s = cached.createSession();
+        s.setAttribute("userId", 1L);
+        s.setAttribute("username", "hong");
+        s.setAttribute("role", "ADMIN");
+        s.setAttribute("SPRING_SECURITY_CONTEXT", new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                "hong", null, List.of(new SimpleGrantedAuthority("ADMIN")))));
+        cached.save(s);
+        sessionId = s.getId();
+    }
+
+    @Benchmark
+    public MapSession lookupCached() {
+        MapSession s = cached.findById(sessionId);
+        s.setLastAccessedTime(Instant.now());
+        cached.save(s);
+        return s;
+    }
+
+    @Benchmark
+    public MapSession lookupUncached() {
+        return uncached.findById(sessionId);
+    }
+}
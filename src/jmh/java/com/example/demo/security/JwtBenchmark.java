@@ -0,0 +1,75 @@
+package com.example.demo.security;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 인증 경로 벤치마크
+ * - JwtUtil 검증/클레임 조회, /api/** 요청 한 건에 대한 JwtAuthenticationFilter 처리
+ * - 사용자 조회는 DB 없이 메모리 스텁으로 대체합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil("ThisIsASecretKeyForJwtTokenDemo123456", 3_600_000);
+        token = jwtUtil.generateToken("hong", "ADMIN");
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("hong");
+        user.setRole("ADMIN");
+        filter = new JwtAuthenticationFilter(new StubUserRepository(user), jwtUtil, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validate(token);
+    }
+
+    // 필터가 요청마다 하는 것과 같은 순서: 검증 → 사용자 이름 → 역할
+    @Benchmark
+    public void validateAndReadClaims(Blackhole bh) {
+        bh.consume(jwtUtil.validate(token));
+        bh.consume(jwtUtil.getUsername(token));
+        bh.consume(jwtUtil.getRole(token));
+    }
+
+    @Benchmark
+    public int filterApiRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/telemetry");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilterInternal(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private record StubUserRepository(User user) implements UserRepository {
+        @Override public User save(User u) { return u; }
+        @Override public Optional<User> findById(Long id) { return Optional.of(user); }
+        @Override public Optional<User> findByUsername(String username) { return Optional.of(user); }
+        @Override public Optional<User> findByEmail(String email) { return Optional.of(user); }
+        @Override public boolean existsByUsername(String username) { return true; }
+        @Override public boolean existsByEmail(String email) { return true; }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알림 규칙 평가 비용 (프레임 1건당 규칙 N개)
+ * - 임계값 규칙과 count 규칙을 섞고, 장치 4개가 번갈아 프레임을 보내는 상황
+ * - 값은 대부분 임계값 근처에서 흔들려 일부 규칙이 발생/해제를 오갑니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlertServiceBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int rules;
+
+    private AlertService alerts;
+    private Map<String, Object>[] frames;
+    private long now = 1_760_000_000_000L;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null,
+                registry, new TelemetryLatencyRecorder(registry));
+        List<AlertProperties.Rule> list = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            if (i % 4 == 3) {
+                list.add(new AlertProperties.Rule("count-" + i, AlertProperties.Kind.COUNT, "model_result", null, null,
+                        Duration.ZERO, 0, 0, 1 + i % 5, Duration.ofMinutes(5), "critical", Duration.ofSeconds(10)));
+            } else {
+                list.add(new AlertProperties.Rule("temp-" + i, AlertProperties.Kind.ABOVE, i % 2 == 0 ? "cpuTemp" : "gpuTemp",
+                        50.0 + i % 30, null, Duration.ofSeconds(i % 10), 2, 0, 1, Duration.ofMinutes(5), "warning", Duration.ofSeconds(10)));
+            }
+        }
+        alerts = new AlertService(bridge, new SimpMessagingTemplate((m, t) -> true), new AlertProperties(list), registry);
+        frames = new Map[64];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = Map.of("device", "dev-" + i % 4, "cpuTemp", 55 + i % 30, "gpuTemp", 50 + (i * 7) % 30,
+                    "pwm_value", 40, "model_result", i % 9 == 0 ? 0 : 1);
+        }
+    }
+
+    @Benchmark
+    public void evaluateFrame() {
+        now += 250;
+        alerts.evaluate(frames[next++ & (frames.length - 1)], now);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 제어 경로 로그 비용 벤치마크
+ * - appender=sync : 파일에 바로 쓰는 동기 appender (기존 기본 설정에 해당)
+ * - appender=async: logback-spring.xml 과 같은 AsyncAppender(neverBlock) 로 감싼 경우
+ * - controlSubmit 은 브리지가 없는 상태의 ControlService.submit (전송 실패 warn 은 RateLimitedLogger 로 샘플링),
+ *   perMessageInfo / sampledWarn 은 메시지마다 INFO 를 남기던 방식과 샘플링 방식의 한 줄 비용입니다.
+ * 로그는 build/jmh-logs 아래 파일로 씁니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControlPathBenchmark {
+
+    private static final String JSON = "{\"mode\":\"manual\",\"pwm\":42}";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private ControlService control;
+    private ControlCommand command;
+    private org.slf4j.Logger log;
+    private RateLimitedLogger sampled;
+    private Appender<ILoggingEvent> installed;
+
+    @Setup
+    public void setup() {
+        installed = installAppender(appender);
+        log = LoggerFactory.getLogger(ControlPathBenchmark.class);
+        sampled = new RateLimitedLogger(log, 10_000);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+        FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false,
+                new FanBridgeServiceBenchmark.StubInfluxService(registry), registry, latency);
+        TelemetryService telemetry = new TelemetryService(bridge, new ObjectMapper(), registry, latency, new TelemetryStatsService(bridge), TelemetryDeadband.NONE);
+        SimpMessagingTemplate broker = new SimpMessagingTemplate((message, timeout) -> true);
+        TelemetryJournal journal = new TelemetryJournal(bridge, false, "", 4096, 48, registry);
+        TelemetryTierService tiers = new TelemetryTierService(broker, telemetry, bridge, new StompSubscriptionTracker(registry), registry);
+        control = new ControlService(bridge, telemetry, tiers, journal, registry, 0);
+        command = ControlCommand.from(Map.of("mode", "manual", "pwm", 42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        control.stop();
+        installed.stop();
+    }
+
+    @Benchmark
+    public ControlService.Result controlSubmit() {
+        return control.submit(command, true, "http", null).join();
+    }
+
+    @Benchmark
+    public void perMessageInfo() {
+        log.info("[bridge] send: {}", JSON);
+    }
+
+    @Benchmark
+    public void sampledWarn() {
+        sampled.warn("bench", "[control] bridge send failed: {}", JSON);
+    }
+
+    private static Appender<ILoggingEvent> installAppender(String kind) {
+        LoggerContext ctx = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = ctx.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(ctx);
+        encoder.setPattern("%d{ISO8601} %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(ctx);
+        file.setName("FILE");
+        file.setFile("build/jmh-logs/control-" + kind + ".log");
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> top = file;
+        if ("async".equals(kind)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(ctx);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            top = async;
+        }
+        root.addAppender(top);
+        return top;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 텔레메트리 경로 벤치마크
+ * - 브리지 프레임 파싱(Listener.onText → handleFrame), UI 스냅샷 생성, 스냅샷 JSON 직렬화
+ * - 브리지 연결(start)은 하지 않고, Influx 는 고정 값을 돌려주는 스텁을 씁니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FanBridgeServiceBenchmark {
+
+    private static final String FRAME =
+            "{\"cpuTemp\":61.5,\"gpuTemp\":58.25,\"pwm_value\":42,\"model_result\":1,\"mode\":\"auto\",\"ts\":1760000000.123}";
+
+    private FanBridgeService bridge;
+    private ObjectMapper mapper;
+    private Map<String, Object> snapshot;
+
+    @Setup
+    public void setup() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false,
+                new StubInfluxService(registry), registry, new TelemetryLatencyRecorder(registry));
+        bridge.handleFrame(FRAME);
+        mapper = new ObjectMapper();
+        snapshot = bridge.getUiTelemetry();
+    }
+
+    @Benchmark
+    public void parseFrame() {
+        bridge.handleFrame(FRAME);
+    }
+
+    @Benchmark
+    public Map<String, Object> uiTelemetry() {
+        return bridge.getUiTelemetry();
+    }
+
+    @Benchmark
+    public String serializeSnapshot() throws Exception {
+        return mapper.writeValueAsString(snapshot);
+    }
+
+    /** 네트워크 없이 마지막 측정값을 돌려주는 Influx 스텁 (토큰이 비어 있어 클라이언트는 만들지 않음) */
+    static class StubInfluxService extends InfluxService {
+        private final Map<String, Object> temps = new LinkedHashMap<>();
+
+        StubInfluxService(MeterRegistry registry) {
+            super("", "", "HANBAT", "TEMPER", 1000, 2000, 3, 30000, 60000, 2, registry);
+            temps.put("cpu_temperature", 61.5);
+            temps.put("gpu_temperature", 58.25);
+            temps.put("model_result", 1L);
+            temps.put("pwm_value", 42L);
+        }
+
+        @Override
+        public Map<String, Object> latestTemps() {
+            return temps;
+        }
+    }
+}
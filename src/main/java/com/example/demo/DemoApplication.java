@@ -1,9 +1,12 @@
 package com.example.demo;
 
+import com.example.demo.service.AlertProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(AlertProperties.class)
 public class DemoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.JdbcSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP 세션 저장소 선택 (HttpSession 을 쓰는 컨트롤러/Spring Security 코드는 그대로)
+ * - session.store=jdbc   : 앱 datasource 의 app_sessions 테이블 (기본, 여러 인스턴스/재시작 간 공유)
+ * - session.store=memory : 인스턴스 메모리 (테스트, 단일 인스턴스용)
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    @Bean
+    public SessionRepository<MapSession> sessionRepository(@Value("${session.store:jdbc}") String store,
+                                                           @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+                                                           @Value("${session.jdbc.cacheTtlMillis:5000}") long cacheTtlMillis,
+                                                           JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        if ("memory".equalsIgnoreCase(store)) {
+            MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+            repository.setDefaultMaxInactiveInterval(timeout);
+            return repository;
+        }
+        if (!"jdbc".equalsIgnoreCase(store)) throw new IllegalStateException("unknown session.store: " + store);
+        return new JdbcSessionRepository(jdbcTemplate, timeout, cacheTtlMillis, meterRegistry);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.demo.config;
 
+import com.example.demo.security.StompAuthInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -11,6 +15,16 @@ import org.springframework.web.socket.server.support.HttpSessionHandshakeInterce
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // vt 프로파일에서 STOMP inbound/outbound 채널도 가상 스레드로 처리합니다.
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final StompAuthInterceptor stompAuth;
+
+    public WebSocketConfig(StompAuthInterceptor stompAuth) {
+        this.stompAuth = stompAuth;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/topic", "/queue");
@@ -24,4 +38,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .addInterceptors(new HttpSessionHandshakeInterceptor())
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // CONNECT 에서 한 번 인증해 세션 사용자(StompPrincipal)로 묶음
+        registration.interceptors(stompAuth);
+        if (virtualThreads) registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.AlertService;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Collection;
+
+/**
+ * 알림 조회
+ * - /ws/alerts 구독 시 현재 발생 중인 알림 목록을 구독자에게만 한 번 보냅니다.
+ *   이후 발생/해제 이벤트는 /topic/alerts (브로커 destination 이라 @SubscribeMapping 이 걸리지 않으므로 초기 목록은 앱 destination 으로)
+ */
+@Controller
+public class AlertController {
+
+    /** 초기 목록 destination (앱 prefix /ws 아래, 클라이언트는 /ws/alerts 구독) */
+    static final String INITIAL = "/alerts";
+
+    private final AlertService alerts;
+
+    public AlertController(AlertService alerts) {
+        this.alerts = alerts;
+    }
+
+    @SubscribeMapping(INITIAL)
+    public Collection<AlertService.AlertEvent> onSubscribeAlerts() {
+        return alerts.active();
+    }
+
+    @GetMapping("/api/alerts")
+    @ResponseBody
+    public Collection<AlertService.AlertEvent> activeAlerts() {
+        return alerts.active();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.InfluxService;
+import com.example.demo.service.TelemetryJournal;
+import com.example.demo.service.TelemetryStatsService;
+import com.example.demo.service.TelemetryStreamService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 읽기 전용 텔레메트리 API
+ * - STOMP 없이 스냅샷을 받아야 하는 클라이언트(월 디스플레이, 스크립트)용
+ * - Influx 이력 조회 (Influx 를 쓸 수 없으면 로컬 저널) / CSV 내보내기
+ */
+@Controller
+public class TelemetryApiController {
+
+    private final TelemetryStreamService streams;
+    private final InfluxService influx;
+    private final TelemetryJournal journal;
+    private final TelemetryStatsService stats;
+
+    public TelemetryApiController(TelemetryStreamService streams, InfluxService influx, TelemetryJournal journal,
+                                  TelemetryStatsService stats) {
+        this.streams = streams;
+        this.influx = influx;
+        this.journal = journal;
+        this.stats = stats;
+    }
+
+    // SSE: 스냅샷이 바뀔 때마다 push, 재연결 시 Last-Event-ID(스냅샷 커서)로 이어받기
+    @GetMapping(value = "/api/telemetry/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return streams.open(lastEventId == null ? null : lastEventId.trim());
+    }
+
+    // 구간 통계: { "1m"|"5m"|"1h": { cpuTemp|gpuTemp|actualPwm: { count, min, max, avg, p50, p90, p99 } } }
+    @GetMapping("/api/telemetry/stats")
+    @ResponseBody
+    public Map<String, Map<String, TelemetryStatsService.Summary>> stats() {
+        return stats.current();
+    }
+
+    // 최근 minutes 분 이력을 최대 points 개 구간 평균으로: { measurement, times[], values[] }
+    @GetMapping("/api/telemetry/history")
+    @ResponseBody
+    public InfluxService.Series history(@RequestParam(defaultValue = "cpu_temperature") String measurement,
+                                       @RequestParam(defaultValue = "60") long minutes,
+                                       @RequestParam(defaultValue = "300") int points) {
+        requireKnown(measurement);
+        Duration range = Duration.ofMinutes(Math.max(1, minutes));
+        return influx.history(measurement, range, points)
+                .or(() -> journal.history(measurement, range, points))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "no history source available"));
+    }
+
+    // [from, to) 원본 값을 CSV 로 내보내기: Influx 응답을 읽는 대로 써서 결과 크기와 무관하게 메모리 일정
+    @GetMapping("/api/telemetry/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam String measurement,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        requireKnown(measurement);
+        // 응답(200 + 헤더)을 커밋하기 전에 확인: 조회를 시작할 수 없으면 빈 CSV 대신 503
+        if (!influx.rangeAvailable()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "influx export unavailable");
+        }
+        Instant until = to != null ? to : Instant.now();
+        StreamingResponseBody body = out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            w.write("time,value\n");
+            // 클라이언트가 끊겨 쓰기가 실패하면 false 를 돌려 Influx 조회도 취소
+            AtomicBoolean clientGone = new AtomicBoolean();
+            long rows = influx.export(measurement, from, until, (t, v) -> {
+                try {
+                    w.write(Instant.ofEpochMilli(t).toString());
+                    w.write(',');
+                    w.write(Double.toString(v));
+                    w.write('\n');
+                    return true;
+                } catch (IOException e) {
+                    clientGone.set(true);
+                    return false;
+                }
+            });
+            // 도중 실패(타임아웃, Influx 오류)는 정상 종료처럼 끝내지 않음: 예외로 chunked 응답을 중단해 잘린 파일임을 알림
+            if (rows < 0 && !clientGone.get()) throw new IOException("influx export failed for " + measurement);
+            w.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + measurement + ".csv\"")
+                .body(body);
+    }
+
+    private static void requireKnown(String measurement) {
+        if (!InfluxService.isKnownMeasurement(measurement)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown measurement");
+        }
+    }
+}
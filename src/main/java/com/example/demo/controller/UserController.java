@@ -5,6 +5,7 @@ import jakarta.validation.Valid;
 import com.example.demo.dto.ResponseDto;
 import com.example.demo.dto.UserDto;
 import com.example.demo.model.User;
+import com.example.demo.service.LoginRejectedException;
 import com.example.demo.service.UserService;
 import com.example.demo.security.JwtUtil;
 import org.springframework.stereotype.Controller;
@@ -99,8 +100,14 @@ public class UserController {
             return "user/login";
         }
 
-        // 로그인 처리
-        Optional<User> userOptional = userService.login(loginRequest);
+        // 로그인 처리 (시도 제한/검증 포화 시 재시도 안내)
+        Optional<User> userOptional;
+        try {
+            userOptional = userService.login(loginRequest, request.getRemoteAddr());
+        } catch (LoginRejectedException e) {
+            model.addAttribute("errorMessage", e.getMessage());
+            return "user/login";
+        }
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
@@ -161,8 +168,14 @@ public class UserController {
     @PostMapping("/api/login")
     @ResponseBody
     public ResponseDto<UserDto.AuthResponse> loginApi(@Valid @RequestBody UserDto.LoginRequest loginRequest,
-                                                  HttpSession session) {
-        Optional<User> userOptional = userService.login(loginRequest);
+                                                  HttpSession session,
+                                                  HttpServletRequest request) {
+        Optional<User> userOptional;
+        try {
+            userOptional = userService.login(loginRequest, request.getRemoteAddr());
+        } catch (LoginRejectedException e) {
+            return ResponseDto.fail(e.getMessage());
+        }
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
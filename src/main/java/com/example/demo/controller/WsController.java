@@ -1,10 +1,27 @@
 package com.example.demo.controller;
 
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.StompPrincipal;
+import com.example.demo.service.ControlCommand;
+import com.example.demo.service.ControlService;
 import com.example.demo.service.FanBridgeService;
+import com.example.demo.service.TelemetryLatencyRecorder;
+import com.example.demo.service.TelemetryService;
+import com.example.demo.service.TelemetryTierService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -15,187 +32,173 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.security.Principal;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @EnableScheduling
 public class WsController {
 
     private static final Logger log = LoggerFactory.getLogger(WsController.class);
+    static final String CONTROL_RESULT_QUEUE = "/queue/control-result";
+    private static final long MAX_LONG_POLL_MILLIS = 60000;
 
     private final SimpMessagingTemplate broker;
     private final FanBridgeService bridge;
-
-    public WsController(SimpMessagingTemplate broker, FanBridgeService bridge) {
+    private final TelemetryService telemetry;
+    private final ControlService control;
+    private final Timer pushTimer;
+    private final TelemetryLatencyRecorder latency;
+    private final double renderReportSampleRate;
+    private final TelemetryTierService tiers;
+    private final JwtUtil jwtUtil;
+
+    public WsController(SimpMessagingTemplate broker, FanBridgeService bridge, TelemetryService telemetry, ControlService control,
+                        TelemetryTierService tiers, JwtUtil jwtUtil, MeterRegistry meterRegistry, TelemetryLatencyRecorder latency,
+                        @Value("${fan.trace.renderReportSampleRate:0.1}") double renderReportSampleRate) {
         this.broker = broker;
         this.bridge = bridge;
+        this.telemetry = telemetry;
+        this.control = control;
+        this.tiers = tiers;
+        this.jwtUtil = jwtUtil;
+        this.pushTimer = meterRegistry.timer("fan.telemetry.push");
+        this.latency = latency;
+        this.renderReportSampleRate = renderReportSampleRate;
     }
 
+    // 구독 직후 초기 스냅샷: 주기 작업이 만든 스냅샷을 재사용 (구독마다 Influx 조회하지 않음)
     @SubscribeMapping("/topic/telemetry")
     public Map<String, Object> onSubscribeTelemetry() {
-        Map<String, Object> t = bridge.getUiTelemetry();
+        Map<String, Object> t = telemetry.latest().data();
         return t.isEmpty() ? Map.of("status","no-data") : t;
     }
 
+    // 제어 결과/오류는 보낸 세션에만 전달 (/user/queue/control-result), /topic/telemetry 는 상태 스냅샷 전용
     @MessageMapping("/control")
-    public void onControl(@Payload Map<String, Object> body, java.security.Principal principal, org.springframework.messaging.simp.SimpMessageHeaderAccessor headerAccessor) {
-        Authentication auth = null;
-        if (principal instanceof Authentication a) auth = a;
-        if (auth == null) auth = SecurityContextHolder.getContext().getAuthentication();
-        String who = principal == null ? "anonymous" : principal.getName();
-        boolean isAdmin = auth != null && auth.getAuthorities() != null && auth.getAuthorities().stream().anyMatch(a -> "ADMIN".equals(a.getAuthority()));
-        // fallback: WebSocket 세션의 sessionAttributes에 저장된 'role'을 검사
-        try {
-            if (headerAccessor != null) {
-                var attrs = headerAccessor.getSessionAttributes();
-                log.info("[ws] sessionAttributes keys={}", attrs==null?null:attrs.keySet());
-                if (!isAdmin && attrs != null) {
-                    Object r = attrs.get("role");
-                    if (r != null && "ADMIN".equals(String.valueOf(r))) {
-                        isAdmin = true;
-                    }
-                }
-            }
-        } catch (Exception e) { /* ignore */ }
-        log.info("[ws] onControl from {} (auth==null:{} ) admin={} payload={}", who, auth==null, isAdmin, body);
-        String dim = String.valueOf(body.getOrDefault("dimension","SPEED")).toUpperCase();
-        Map<String, Object> payload = new HashMap<>();
-        if ("TEMP".equals(dim)) {
-            if (!isAdmin) { broker.convertAndSend("/topic/telemetry", Map.of("error","TEMP threshold requires ADMIN")); return; }
-            payload.put("cpu_threshold", body.getOrDefault("cpuThreshold", 60));
-            payload.put("gpu_threshold", body.getOrDefault("gpuThreshold", 60));
-            payload.put("mode", "range");
-        } else {
-            String reqMode = String.valueOf(body.getOrDefault("mode","AUTOMATIC"));
-            if ("MANUAL".equalsIgnoreCase(reqMode) && !isAdmin) { broker.convertAndSend("/topic/telemetry", Map.of("error","MANUAL mode requires ADMIN")); return; }
-            if ("MANUAL".equalsIgnoreCase(reqMode)) { payload.put("mode", "manual"); payload.put("manual_pwm", body.getOrDefault("pwm", 0)); }
-            else { payload.put("mode", "auto"); }
-        }
-        log.info("[ws] forward to python: {}", payload);
-        // 서버 내부 상태를 낙관적으로 먼저 업데이트하여 새로고침 시에도 변경이 유지되도록 함
-        try {
-            bridge.applyLocalControl(payload);
-        } catch (Exception e) {
-            log.debug("[ws] applyLocalControl failed: {}", e.toString());
-        }
-         // 낙관적 업데이트: 브리지로 전송하기 전에 클라이언트가 즉시 변경을 볼 수 있도록 현재 스냅샷을 복제하여 수정한 값을 푸시한다.
-         try {
-             Map<String, Object> snap = bridge.getUiTelemetry();
-             Map<String, Object> optimistic = new HashMap<>(snap);
-             String pmode = String.valueOf(payload.getOrDefault("mode", "auto")).toUpperCase();
-             if ("MANUAL".equalsIgnoreCase(pmode) || "MANUAL".equalsIgnoreCase((String)payload.get("mode"))) {
-                 optimistic.put("mode", "MANUAL");
-                 if (payload.containsKey("manual_pwm")) optimistic.put("setPwm", toIntSafe(payload.get("manual_pwm")));
-             } else if ("range".equalsIgnoreCase(String.valueOf(payload.get("mode")))) {
-                 optimistic.put("mode", "MANUAL");
-                 if (payload.containsKey("cpu_threshold")) optimistic.put("cpuThreshold", toIntSafe(payload.get("cpu_threshold")));
-                 if (payload.containsKey("gpu_threshold")) optimistic.put("gpuThreshold", toIntSafe(payload.get("gpu_threshold")));
-             } else {
-                 optimistic.put("mode", "AUTOMATIC");
-             }
-             broker.convertAndSend("/topic/telemetry", optimistic);
-         } catch (Exception e) {
-             log.debug("[ws] optimistic push failed: {}", e.toString());
-         }
-        bridge.sendControl(payload).whenComplete((ok, err) -> {
-            if (err != null) {
-                log.warn("[ws] bridge.sendControl failed: {}", err.toString());
-                // 브리지 연결 실패시에도 현재 서버가 알고 있는 스냅샷을 클라이언트에게 푸시하여
-                // 사용자가 Apply 후 즉시 변경 상태를 볼 수 있도록 한다.
-                try {
-                    Map<String, Object> snap = bridge.getUiTelemetry();
-                    Map<String, Object> out = new HashMap<>(snap);
-                    out.put("error", "bridge not connected");
-                    broker.convertAndSend("/topic/telemetry", out);
-                } catch (Exception e2) {
-                    broker.convertAndSend("/topic/telemetry", Map.of("error","bridge not connected"));
-                }
-            } else {
-                Map<String, Object> t = bridge.getUiTelemetry();
-                if (!t.isEmpty()) broker.convertAndSend("/topic/telemetry", t);
-            }
-        });
+    // 권한은 CONNECT 때 StompAuthInterceptor 가 세션에 묶은 StompPrincipal 에서 읽음 (없으면 익명 = ADMIN 아님)
+    public void onControl(@Payload Map<String, Object> body, Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
+        boolean admin = principal instanceof StompPrincipal p && p.admin();
+        submitControl(body, admin, "ws", sessionId == null ? null : "ws:" + sessionId)
+                .thenAccept(result -> replyToSession(sessionId, resultBody(result)));
     }
 
     // REST fallback: 브라우저가 STOMP 연결에 인증 문제를 겪을 때 POST 방식으로도 제어를 허용합니다.
-    @org.springframework.web.bind.annotation.PostMapping("/api/control")
-    @org.springframework.web.bind.annotation.ResponseBody
-    public Map<String, Object> controlViaHttp(@org.springframework.web.bind.annotation.RequestBody Map<String, Object> body,
-                                              java.security.Principal principal,
-                                              jakarta.servlet.http.HttpSession session) {
-        Authentication auth = null;
-        if (principal instanceof Authentication a) auth = a;
-        if (auth == null) auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth != null && auth.getAuthorities() != null && auth.getAuthorities().stream().anyMatch(a -> "ADMIN".equals(a.getAuthority()));
-        // fallback: 세션 속성에서 role 검사
+    @PostMapping("/api/control")
+    @ResponseBody
+    public CompletableFuture<Map<String, Object>> controlViaHttp(@RequestBody Map<String, Object> body, Principal principal, HttpSession session) {
+        return submitControl(body, isAdmin(principal, session == null ? null : session.getAttribute("role")), "http",
+                session == null ? null : "http:" + session.getId())
+                .thenApply(WsController::resultBody);
+    }
+
+    private CompletableFuture<ControlService.Result> submitControl(Map<String, Object> body, boolean admin, String channel, String caller) {
+        ControlCommand command;
         try {
-            if (!isAdmin && session != null) {
-                Object r = session.getAttribute("role");
-                if (r != null && "ADMIN".equals(String.valueOf(r))) isAdmin = true;
-            }
-        } catch (Exception ignored) {}
-
-        String dim = String.valueOf(body.getOrDefault("dimension","SPEED")).toUpperCase();
-        Map<String, Object> payload = new HashMap<>();
-        if ("TEMP".equals(dim)) {
-            if (!isAdmin) return Map.of("ok", false, "error", "TEMP threshold requires ADMIN");
-            payload.put("cpu_threshold", body.getOrDefault("cpuThreshold", 60));
-            payload.put("gpu_threshold", body.getOrDefault("gpuThreshold", 60));
-            payload.put("mode", "range");
-        } else {
-            String reqMode = String.valueOf(body.getOrDefault("mode","AUTOMATIC"));
-            if ("MANUAL".equalsIgnoreCase(reqMode) && !isAdmin) return Map.of("ok", false, "error", "MANUAL mode requires ADMIN");
-            if ("MANUAL".equalsIgnoreCase(reqMode)) { payload.put("mode", "manual"); payload.put("manual_pwm", body.getOrDefault("pwm", 0)); }
-            else { payload.put("mode", "auto"); }
+            command = ControlCommand.from(body);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(new ControlService.Result(false, e.getMessage()));
         }
+        log.debug("[control] {} admin={} command={}", channel, admin, command);
+        return control.submit(command, admin, channel, caller);
+    }
 
-        log.info("[http-control] from {} admin={} payload={}", principal==null?"anonymous":principal.getName(), isAdmin, payload);
-        try { bridge.applyLocalControl(payload); } catch (Exception e) { log.debug("applyLocalControl failed: {}", e.toString()); }
-        // optimistic push
-        try {
-            Map<String, Object> snap = bridge.getUiTelemetry();
-            Map<String, Object> optimistic = new HashMap<>(snap);
-            String pmode = String.valueOf(payload.getOrDefault("mode", "auto")).toUpperCase();
-            if ("MANUAL".equalsIgnoreCase(pmode) || "MANUAL".equalsIgnoreCase((String)payload.get("mode"))) {
-                optimistic.put("mode", "MANUAL");
-                if (payload.containsKey("manual_pwm")) optimistic.put("setPwm", toIntSafe(payload.get("manual_pwm")));
-            } else if ("range".equalsIgnoreCase(String.valueOf(payload.get("mode")))) {
-                optimistic.put("mode", "MANUAL");
-                if (payload.containsKey("cpu_threshold")) optimistic.put("cpuThreshold", toIntSafe(payload.get("cpu_threshold")));
-                if (payload.containsKey("gpu_threshold")) optimistic.put("gpuThreshold", toIntSafe(payload.get("gpu_threshold")));
-            } else {
-                optimistic.put("mode", "AUTOMATIC");
-            }
-            broker.convertAndSend("/topic/telemetry", optimistic);
-        } catch (Exception e) { log.debug("optimistic push failed: {}", e.toString()); }
-
-        bridge.sendControl(payload).whenComplete((ok, err) -> {
-            if (err != null) {
-                log.warn("[http-control] bridge.sendControl failed: {}", err.toString());
-                try { Map<String, Object> snap = bridge.getUiTelemetry(); Map<String, Object> out = new HashMap<>(snap); out.put("error","bridge not connected"); broker.convertAndSend("/topic/telemetry", out);}catch(Exception e){ broker.convertAndSend("/topic/telemetry", Map.of("error","bridge not connected")); }
-            } else {
-                Map<String, Object> t = bridge.getUiTelemetry(); if (!t.isEmpty()) broker.convertAndSend("/topic/telemetry", t);
-            }
-        });
+    private static Map<String, Object> resultBody(ControlService.Result result) {
+        return result.ok() ? Map.of("ok", true) : Map.of("ok", false, "error", result.error());
+    }
 
-        return Map.of("ok", true);
+    // Principal 이 없는 익명 세션도 받을 수 있도록 사용자 이름 대신 세션 ID 로 user destination 을 지정
+    private void replyToSession(String sessionId, Object payload) {
+        if (sessionId == null) return;
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        broker.convertAndSendToUser(sessionId, CONTROL_RESULT_QUEUE, payload, headers.getMessageHeaders());
+    }
+
+    // HTTP 제어의 ADMIN 판정: 인증 객체의 권한, 없으면 세션에 저장된 role (폼 로그인 시 설정)
+    private static boolean isAdmin(Principal principal, Object sessionRole) {
+        Authentication auth = principal instanceof Authentication a ? a : SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getAuthorities() != null
+                && auth.getAuthorities().stream().anyMatch(g -> "ADMIN".equals(g.getAuthority()))) {
+            return true;
+        }
+        return sessionRole != null && "ADMIN".equals(String.valueOf(sessionRole));
+    }
+
+    // 클라이언트 렌더 시각 보고: 스냅샷 발행(trace.publishedAt) → render() 지연을 히스토그램에 기록
+    @MessageMapping("/telemetry/render")
+    public void onRenderReport(@Payload Map<String, Object> body) {
+        latency.publishToRender(toLongSafe(body.get("publishedAt")), toLongSafe(body.get("renderedAt")));
     }
 
     @Scheduled(fixedDelay = 1000)
     public void pushTelemetry() {
-        Map<String, Object> t = bridge.getUiTelemetry();
-        if (!t.isEmpty()) broker.convertAndSend("/topic/telemetry", t);
+        // 스냅샷 갱신(변경 시 버전 증가 + SSE/realtime 리스너 통지) 후, 1hz / 0.1hz 등급에 새 버전만 STOMP 브로드캐스트
+        // (데드밴드 안의 흔들림이나 변화 없는 틱은 보내지 않음, 새 구독자가 있는 등급은 현재 스냅샷을 다시 보냄)
+        // Influx 는 조회하지 않고 FanBridgeService 가 따로 갱신하는 캐시만 읽음 (Influx 가 느려도 1초 주기 유지)
+        TelemetryService.Snapshot s = telemetry.publishLocal();
+        pushTimer.record(() -> tiers.tick(s, System.currentTimeMillis()));
+    }
+
+    // 현재 서버가 클라이언트에 제공하는 UI 텔레메트리(브리지+Influx 병합)를 JSON으로 반환합니다.
+    // - ETag = 스냅샷 커서 "<epoch>-<version>": If-None-Match 가 일치하면 본문 없이 304 (재시작 전 ETag 는 일치하지 않음)
+    // - 일반/ETag 폴링은 이미 있는 스냅샷을 동기로 바로 응답 (비동기 디스패치 없음)
+    @GetMapping(value = "/api/telemetry", params = "!waitForChangeAfter")
+    @ResponseBody
+    public ResponseEntity<String> telemetryApi(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return telemetryResponse(telemetry.latest(), ifNoneMatch);
     }
 
-    // 디버그/테스트용: 현재 서버가 클라이언트에 제공하는 UI 텔레메트리(브리지+Influx 병합)를 JSON으로 반환합니다.
-    @GetMapping("/api/telemetry")
+    // - waitForChangeAfter=<cursor>(따옴표 뺀 ETag): 다음 버전이 나올 때까지(1ms ~ 60s 로 제한한 timeout ms) 비동기로 대기, 시간 초과 시 304
+    //   현재 스냅샷과 다른 커서(재시작 전 커서 포함)는 기다리지 않고 바로 현재 스냅샷으로 응답
+    //   (비동기 timeout 0 은 컨테이너에서 "무제한" 이므로 최소 1ms)
+    @GetMapping(value = "/api/telemetry", params = "waitForChangeAfter")
     @ResponseBody
-    public Map<String, Object> telemetryApi() {
-        return bridge.getUiTelemetry();
+    public DeferredResult<ResponseEntity<String>> telemetryLongPoll(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestParam String waitForChangeAfter,
+            @RequestParam(defaultValue = "30000") long timeout) {
+        long waitMillis = Math.max(1, Math.min(timeout, MAX_LONG_POLL_MILLIS));
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>(waitMillis);
+        result.onTimeout(() -> result.setResult(telemetryResponse(telemetry.current(), etagOf(telemetry.current()))));
+        telemetry.awaitAfter(waitForChangeAfter).thenAccept(s -> result.setResult(telemetryResponse(s, ifNoneMatch)));
+        return result;
+    }
+
+    private ResponseEntity<String> telemetryResponse(TelemetryService.Snapshot s, String ifNoneMatch) {
+        String etag = etagOf(s);
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(s.json());
+    }
+
+    private String etagOf(TelemetryService.Snapshot s) {
+        return "\"" + telemetry.cursorOf(s) + "\"";
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
     }
 
     @GetMapping("/fan")
@@ -216,10 +219,14 @@ public class WsController {
         model.addAttribute("isAuthenticated", isAuthenticated);
         model.addAttribute("isAdmin", isAdmin);
         model.addAttribute("username", username == null ? "" : username);
+        // STOMP CONNECT 용 토큰: 핸드셰이크에 HTTP 세션이 없을 때(다른 인스턴스 등)만 쓰임, 세션이 있으면 만료돼도 재연결 가능
+        model.addAttribute("wsToken", isAuthenticated ? jwtUtil.generateToken(username, isAdmin ? "ADMIN" : "USER") : "");
+        // 렌더 지연 보고 샘플링 비율 (페이지 로드마다 클라이언트가 확률적으로 참여)
+        model.addAttribute("renderReportSampleRate", renderReportSampleRate);
 
         // 실제 브리지에서 UI용 스냅샷을 가져와 초기값으로 제공
         try {
-            Map<String, Object> snap = bridge.getUiTelemetry();
+            Map<String, Object> snap = bridge.getCachedUiTelemetry();
             String mode = snap.getOrDefault("mode", "AUTOMATIC").toString().toUpperCase();
             Integer setPwm = (snap.containsKey("setPwm") && snap.get("setPwm") instanceof Number) ? ((Number)snap.get("setPwm")).intValue() : 50;
             Integer cpuTh = (snap.containsKey("cpuThreshold") && snap.get("cpuThreshold") instanceof Number) ? ((Number)snap.get("cpuThreshold")).intValue() : 80;
@@ -239,10 +246,8 @@ public class WsController {
         return "fan/dashboard";
     }
 
-    // 유틸: Object -> int 안전 변환 (컨트롤러 내부용)
-    private int toIntSafe(Object o) {
-        if (o == null) return 0;
-        if (o instanceof Number) return ((Number)o).intValue();
-        try { return Integer.parseInt(String.valueOf(o)); } catch (Exception e) { return 0; }
+    private long toLongSafe(Object o) {
+        if (o instanceof Number n) return n.longValue();
+        try { return Long.parseLong(String.valueOf(o)); } catch (Exception e) { return 0; }
     }
 }
@@ -0,0 +1,236 @@
+package com.example.demo.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * HTTP 세션 저장소 (app_sessions 테이블, 앱 datasource 공유)
+ * - 여러 인스턴스가 같은 DB 를 보면 sticky session 없이 로그인 상태를 공유하고, 재시작해도 세션이 남습니다.
+ * - 조회는 로컬 캐시를 먼저 보고 cacheTtlMillis 가 지난 항목만 DB 에서 다시 읽습니다. (read-through)
+ *   다른 인스턴스의 변경(로그아웃 포함)은 최대 cacheTtlMillis 늦게 보일 수 있습니다.
+ * - 저장 시 속성이 바뀌었을 때만 행 전체를 쓰고, 마지막 접근 시각만 바뀐 요청은 메모리에 모았다가
+ *   flushIntervalMillis 마다 batch UPDATE 로 한 번에 씁니다.
+ * - 만료 세션은 요청마다 지우지 않고 cleanupIntervalMillis 마다 DELETE 한 번으로 정리합니다.
+ * - 속성 값은 Java 직렬화로 저장하므로 Serializable 이어야 합니다. (userId / username / role / SecurityContext)
+ */
+public class JdbcSessionRepository implements SessionRepository<MapSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcSessionRepository.class);
+
+    private static final String SELECT = "SELECT created_at, last_accessed_at, max_inactive_seconds, attributes FROM app_sessions WHERE id = ?";
+    private static final String UPDATE = "UPDATE app_sessions SET created_at = ?, last_accessed_at = ?, max_inactive_seconds = ?, expires_at = ?, attributes = ? WHERE id = ?";
+    private static final String INSERT = "INSERT INTO app_sessions (created_at, last_accessed_at, max_inactive_seconds, expires_at, attributes, id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String TOUCH = "UPDATE app_sessions SET last_accessed_at = ?, expires_at = ? WHERE id = ? AND last_accessed_at < ?";
+
+    /** 캐시 항목: 세션 사본 + 마지막으로 DB 에 쓴 속성 바이트 (변경 비교용) */
+    private record Cached(MapSession session, byte[] attributes, long loadedAt) {}
+
+    /** 아직 DB 에 쓰지 않은 접근 시각 갱신 */
+    private record Touch(long accessedAt, long expiresAt) {}
+
+    private final JdbcTemplate jdbc;
+    private final Duration defaultMaxInactive;
+    private final long cacheTtlMillis;
+    private final LongSupplier clock;
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<String, Touch> touches = new ConcurrentHashMap<>();
+
+    private final Timer lookupHit;
+    private final Timer lookupMiss;
+    private final Counter fullWrites;
+    private final Counter touchWrites;
+    private final Counter expired;
+
+    public JdbcSessionRepository(JdbcTemplate jdbc, Duration defaultMaxInactive, long cacheTtlMillis, MeterRegistry meterRegistry) {
+        this(jdbc, defaultMaxInactive, cacheTtlMillis, meterRegistry, System::currentTimeMillis);
+    }
+
+    JdbcSessionRepository(JdbcTemplate jdbc, Duration defaultMaxInactive, long cacheTtlMillis, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.jdbc = jdbc;
+        this.defaultMaxInactive = defaultMaxInactive;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.clock = clock;
+        this.lookupHit = meterRegistry.timer("fan.session.lookup", "cache", "hit");
+        this.lookupMiss = meterRegistry.timer("fan.session.lookup", "cache", "miss");
+        this.fullWrites = meterRegistry.counter("fan.session.writes", "kind", "full");
+        this.touchWrites = meterRegistry.counter("fan.session.writes", "kind", "touch");
+        this.expired = meterRegistry.counter("fan.session.expired");
+        Gauge.builder("fan.session.cached", cache, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public MapSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactive);
+        return session;
+    }
+
+    @Override
+    public void save(MapSession session) {
+        long now = clock.getAsLong();
+        String id = session.getId();
+        String originalId = session.getOriginalId();
+        boolean idChanged = originalId != null && !id.equals(originalId);
+        if (idChanged) deleteById(originalId); // 세션 고정 방지로 ID 가 바뀐 경우: 새 ID 로 다시 씀
+
+        byte[] attributes = serialize(session);
+        long accessedAt = session.getLastAccessedTime().toEpochMilli();
+        Cached cached = cache.get(id);
+        if (cached == null || !Arrays.equals(cached.attributes(), attributes)
+                || !cached.session().getMaxInactiveInterval().equals(session.getMaxInactiveInterval())) {
+            upsert(session, attributes);
+            touches.remove(id);
+            cache.put(id, new Cached(new MapSession(session), attributes, now));
+            fullWrites.increment();
+            return;
+        }
+        // 속성 그대로: 접근 시각만 모아 두고 다음 flush 때 batch 로 씀
+        if (accessedAt > cached.session().getLastAccessedTime().toEpochMilli()) {
+            touches.put(id, new Touch(accessedAt, expiresAt(session)));
+        }
+        cache.put(id, new Cached(new MapSession(session), attributes, cached.loadedAt()));
+    }
+
+    @Override
+    public MapSession findById(String id) {
+        long start = System.nanoTime();
+        long now = clock.getAsLong();
+        Cached cached = cache.get(id);
+        boolean hit = cached != null && now - cached.loadedAt() < cacheTtlMillis;
+        if (!hit) {
+            cached = load(id, now);
+            if (cached == null) cache.remove(id);
+            else cache.put(id, cached);
+        }
+        (hit ? lookupHit : lookupMiss).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (cached == null) return null;
+        if (expiresAt(cached.session()) <= now) {
+            deleteById(id);
+            return null;
+        }
+        return new MapSession(cached.session()); // 요청마다 사본 (요청 중 변경이 캐시에 바로 섞이지 않게)
+    }
+
+    @Override
+    public void deleteById(String id) {
+        cache.remove(id);
+        touches.remove(id);
+        jdbc.update("DELETE FROM app_sessions WHERE id = ?", id);
+    }
+
+    /** 모아 둔 접근 시각을 batch UPDATE 로 기록 (더 최근 값이 이미 있으면 건너뜀) */
+    @Scheduled(fixedDelayString = "${session.jdbc.flushIntervalMillis:10000}")
+    public synchronized void flushTouches() {
+        if (touches.isEmpty()) return;
+        List<Object[]> batch = new ArrayList<>(touches.size());
+        for (Map.Entry<String, Touch> e : touches.entrySet()) {
+            if (!touches.remove(e.getKey(), e.getValue())) continue; // 그 사이 새 값이 들어왔으면 다음 flush 로
+            Touch t = e.getValue();
+            batch.add(new Object[]{t.accessedAt(), t.expiresAt(), e.getKey(), t.accessedAt()});
+        }
+        if (batch.isEmpty()) return;
+        jdbc.batchUpdate(TOUCH, batch);
+        touchWrites.increment(batch.size());
+    }
+
+    /** 만료 세션 일괄 삭제 (접근 시각을 먼저 flush 해 사용 중인 세션을 지우지 않게 함) */
+    @Scheduled(fixedDelayString = "${session.jdbc.cleanupIntervalMillis:60000}")
+    public void cleanupExpired() {
+        flushTouches();
+        long now = clock.getAsLong();
+        int deleted = jdbc.update("DELETE FROM app_sessions WHERE expires_at <= ?", now);
+        cache.entrySet().removeIf(e -> expiresAt(e.getValue().session()) <= now);
+        if (deleted > 0) {
+            expired.increment(deleted);
+            log.debug("[session] removed {} expired session(s)", deleted);
+        }
+    }
+
+    private Cached load(String id, long now) {
+        Cached row;
+        try {
+            row = jdbc.queryForObject(SELECT, (rs, n) -> {
+                MapSession s = new MapSession(id);
+                s.setCreationTime(Instant.ofEpochMilli(rs.getLong("created_at")));
+                s.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("last_accessed_at")));
+                s.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("max_inactive_seconds")));
+                byte[] attributes = rs.getBytes("attributes");
+                deserialize(attributes).forEach(s::setAttribute);
+                return new Cached(s, attributes, now);
+            }, id);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        } catch (IllegalStateException e) {
+            log.warn("[session] unreadable session {} dropped: {}", id, e.getMessage());
+            deleteById(id);
+            return null;
+        }
+        // 이 인스턴스에서 아직 flush 하지 않은 접근 시각이 더 최근이면 그것을 씀
+        Touch pending = touches.get(id);
+        if (pending != null && pending.accessedAt() > row.session().getLastAccessedTime().toEpochMilli()) {
+            row.session().setLastAccessedTime(Instant.ofEpochMilli(pending.accessedAt()));
+        }
+        return row;
+    }
+
+    private void upsert(MapSession s, byte[] attributes) {
+        Object[] args = {s.getCreationTime().toEpochMilli(), s.getLastAccessedTime().toEpochMilli(),
+                (int) s.getMaxInactiveInterval().getSeconds(), expiresAt(s), attributes, s.getId()};
+        if (jdbc.update(UPDATE, args) == 0) jdbc.update(INSERT, args);
+    }
+
+    // 만료 시각 (epoch ms), maxInactive 가 음수면 만료 없음
+    private static long expiresAt(MapSession s) {
+        Duration maxInactive = s.getMaxInactiveInterval();
+        if (maxInactive.isNegative()) return Long.MAX_VALUE;
+        return s.getLastAccessedTime().toEpochMilli() + maxInactive.toMillis();
+    }
+
+    private static byte[] serialize(MapSession s) {
+        HashMap<String, Object> attributes = new HashMap<>();
+        for (String name : s.getAttributeNames()) attributes.put(name, s.getAttribute(name));
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(attributes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("session attributes must be Serializable: " + e, e);
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Serializable> deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Map<String, Serializable>) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new IllegalStateException(e.toString(), e);
+        }
+    }
+}
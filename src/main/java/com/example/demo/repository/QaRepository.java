@@ -2,6 +2,7 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Answer;
 import com.example.demo.model.Question;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -15,12 +16,18 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Repository
 public class QaRepository {
     private final JdbcTemplate jdbc;
+    private final MeterRegistry meterRegistry;
 
-    public QaRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+    public QaRepository(JdbcTemplate jdbc, MeterRegistry meterRegistry) { this.jdbc = jdbc; this.meterRegistry = meterRegistry; }
+
+    // 쿼리별 소요시간 메트릭 (fan.qa.query{op=...})
+    private <T> T timed(String op, Supplier<T> query){ return meterRegistry.timer("fan.qa.query", "op", op).record(query); }
+    private void timedUpdate(String op, Runnable update){ meterRegistry.timer("fan.qa.query", "op", op).record(update); }
 
     private final RowMapper<Question> qMap = (rs, n) -> {
         Question q = new Question();
@@ -52,7 +59,9 @@ public class QaRepository {
         return a;
     };
 
-    public Question saveQuestion(Question q){
+    public Question saveQuestion(Question q){ return timed("saveQuestion", () -> doSaveQuestion(q)); }
+
+    private Question doSaveQuestion(Question q){
         if(q.getId()==null){
             String sql = "INSERT INTO questions(user_id,username,title,content,tags,status,created_at,updated_at) VALUES(?,?,?,?,?,? ,?,?)";
             KeyHolder kh = new GeneratedKeyHolder();
@@ -82,7 +91,7 @@ public class QaRepository {
     }
 
     public Optional<Question> findQuestion(Long id){
-        List<Question> list = jdbc.query("SELECT * FROM questions WHERE id=?", qMap, id);
+        List<Question> list = timed("findQuestion", () -> jdbc.query("SELECT * FROM questions WHERE id=?", qMap, id));
         return list.isEmpty()? Optional.empty(): Optional.of(list.get(0));
     }
 
@@ -97,14 +106,16 @@ public class QaRepository {
             default -> " ORDER BY created_at DESC";
         };
         String sql = base + where + order;
-        return jdbc.query(sql, ps -> {
+        return timed("search", () -> jdbc.query(sql, ps -> {
             int i=1;
             if(keyword!=null && !keyword.isBlank()){ ps.setString(i++, "%"+keyword+"%"); ps.setString(i++, "%"+keyword+"%"); }
             if(tag!=null && !tag.isBlank()){ ps.setString(i++, "%"+tag+"%"); }
-        }, qMap);
+        }, qMap));
     }
 
-    public Answer saveAnswer(Answer a){
+    public Answer saveAnswer(Answer a){ return timed("saveAnswer", () -> doSaveAnswer(a)); }
+
+    private Answer doSaveAnswer(Answer a){
         if(a.getId()==null){
             String sql = "INSERT INTO answers(question_id,user_id,username,content,selected,upvotes,created_at,updated_at) VALUES(?,?,?,?,?,?,?,?)";
             KeyHolder kh = new GeneratedKeyHolder();
@@ -134,20 +145,22 @@ public class QaRepository {
     }
 
     public List<Answer> findAnswers(Long qid){
-        return jdbc.query("SELECT * FROM answers WHERE question_id=? ORDER BY selected DESC, upvotes DESC, created_at ASC", aMap, qid);
+        return timed("findAnswers", () -> jdbc.query("SELECT * FROM answers WHERE question_id=? ORDER BY selected DESC, upvotes DESC, created_at ASC", aMap, qid));
     }
 
     public void selectAnswer(Long qid, Long aid){
-        jdbc.update("UPDATE answers SET selected=FALSE WHERE question_id=?", qid);
-        jdbc.update("UPDATE answers SET selected=TRUE WHERE id=?", aid);
-        jdbc.update("UPDATE questions SET status='RESOLVED', selected_answer_id=?, updated_at=CURRENT_TIMESTAMP WHERE id=?", aid, qid);
+        timedUpdate("selectAnswer", () -> {
+            jdbc.update("UPDATE answers SET selected=FALSE WHERE question_id=?", qid);
+            jdbc.update("UPDATE answers SET selected=TRUE WHERE id=?", aid);
+            jdbc.update("UPDATE questions SET status='RESOLVED', selected_answer_id=?, updated_at=CURRENT_TIMESTAMP WHERE id=?", aid, qid);
+        });
     }
 
     // 조회수 증가
     public void incrementViews(Long id){
-        jdbc.update("UPDATE questions SET views = views + 1 WHERE id=?", id);
+        timedUpdate("incrementViews", () -> { jdbc.update("UPDATE questions SET views = views + 1 WHERE id=?", id); });
     }
 
-    public void deleteQuestion(Long id){ jdbc.update("DELETE FROM questions WHERE id=?", id); }
-    public void deleteAnswer(Long id){ jdbc.update("DELETE FROM answers WHERE id=?", id); }
+    public void deleteQuestion(Long id){ timedUpdate("deleteQuestion", () -> { jdbc.update("DELETE FROM questions WHERE id=?", id); }); }
+    public void deleteAnswer(Long id){ timedUpdate("deleteAnswer", () -> { jdbc.update("DELETE FROM answers WHERE id=?", id); }); }
 }
@@ -143,15 +143,14 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public boolean existsByUsername(String username) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, username);
-        return count != null && count > 0;
+        // COUNT(*) 대신 첫 행만 확인
+        String sql = "SELECT 1 FROM users WHERE username = ? LIMIT 1";
+        return !jdbcTemplate.queryForList(sql, Integer.class, username).isEmpty();
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, email);
-        return count != null && count > 0;
+        String sql = "SELECT 1 FROM users WHERE email = ? LIMIT 1";
+        return !jdbcTemplate.queryForList(sql, Integer.class, email).isEmpty();
     }
 }
\ No newline at end of file
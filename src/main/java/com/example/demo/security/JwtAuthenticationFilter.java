@@ -2,6 +2,8 @@ package com.example.demo.security;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +22,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final Counter missingToken;
+    private final Counter invalidToken;
 
-    public JwtAuthenticationFilter(UserRepository userRepository, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(UserRepository userRepository, JwtUtil jwtUtil, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.missingToken = meterRegistry.counter("fan.auth.failures", "reason", "jwt_missing", "channel", "http");
+        this.invalidToken = meterRegistry.counter("fan.auth.failures", "reason", "jwt_invalid", "channel", "http");
     }
 
     @Override
@@ -34,11 +40,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // API 경로는 JWT 필수
         if (uri.startsWith("/api/")) {
             if (header == null || !header.startsWith("Bearer ")) {
+                missingToken.increment();
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token required for API");
                 return;
             }
             String token = header.substring(7);
             if (!jwtUtil.validate(token)) {
+                invalidToken.increment();
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
                 return;
             }
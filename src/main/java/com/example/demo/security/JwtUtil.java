@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
@@ -41,11 +42,15 @@ public class JwtUtil {
     }
 
     public boolean validate(String token) {
+        return verify(token).isPresent();
+    }
+
+    /** 서명/만료 검증과 클레임 읽기를 한 번의 파싱으로 (잘못된 토큰이면 empty) */
+    public Optional<Claims> verify(String token) {
         try {
-            parse(token);
-            return true;
+            return Optional.of(parse(token).getBody());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
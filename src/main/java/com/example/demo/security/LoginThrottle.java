@@ -0,0 +1,104 @@
+package com.example.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 사용자 이름 / IP 별 로그인 시도 횟수 제한
+ * - 고정 윈도우(windowMillis) 안에서 시도를 먼저 예약(tryAcquire)하고, 한도를 넘으면 해시 계산 전에 거절합니다.
+ *   확인과 증가를 키마다 한 번의 compute 로 하므로 동시에 들어온 요청도 한도 이상 통과하지 못합니다.
+ * - 로그인에 성공하면 사용자 이름의 카운터를 초기화하고 IP 에서는 이번 시도를 되돌립니다.
+ *   실패가 아닌 거절(해시 풀 포화)은 release 로 양쪽 모두 되돌립니다.
+ * - IP 를 알 수 없는 요청은 IP 한도를 적용하지 않습니다. (한 버킷을 공유하면 한 클라이언트가 다른 클라이언트를 잠글 수 있음)
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public LoginThrottle(@Value("${auth.throttle.maxFailuresPerUser:5}") int maxFailuresPerUser,
+                         @Value("${auth.throttle.maxFailuresPerIp:30}") int maxFailuresPerIp,
+                         @Value("${auth.throttle.windowMillis:300000}") long windowMillis) {
+        this(maxFailuresPerUser, maxFailuresPerIp, windowMillis, System::currentTimeMillis);
+    }
+
+    LoginThrottle(int maxFailuresPerUser, int maxFailuresPerIp, long windowMillis, LongSupplier clock) {
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 시도 한 번 예약
+     * @return 한도를 넘었으면 false (예약하지 않음, 해시 계산 없이 거절해야 함)
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        long now = clock.getAsLong();
+        String user = userKey(username);
+        if (!reserve(user, maxFailuresPerUser, now)) return false;
+        if (clientIp != null && !reserve(ipKey(clientIp), maxFailuresPerIp, now)) {
+            refund(user);
+            return false;
+        }
+        return true;
+    }
+
+    /** 로그인 성공: 사용자 카운터 초기화, IP 는 이번 시도만 되돌림 */
+    public void onSuccess(String username, String clientIp) {
+        windows.remove(userKey(username));
+        if (clientIp != null) refund(ipKey(clientIp));
+    }
+
+    /** 비밀번호를 확인하지 못한 시도(해시 풀 포화 등): 실패로 세지 않도록 예약을 되돌림 */
+    public void release(String username, String clientIp) {
+        refund(userKey(username));
+        if (clientIp != null) refund(ipKey(clientIp));
+    }
+
+    // 윈도우가 지났으면 새 윈도우, 한도 미만이면 +1, 한도면 그대로 두고 거절
+    private boolean reserve(String key, int max, long now) {
+        boolean[] reserved = {false};
+        windows.compute(key, (k, w) -> {
+            if (w == null || now - w.start >= windowMillis) {
+                reserved[0] = max > 0;
+                return reserved[0] ? new Window(now, 1) : null;
+            }
+            if (w.count >= max) return w;
+            reserved[0] = true;
+            return new Window(w.start, w.count + 1);
+        });
+        return reserved[0];
+    }
+
+    private void refund(String key) {
+        windows.computeIfPresent(key, (k, w) -> w.count <= 1 ? null : new Window(w.start, w.count - 1));
+    }
+
+    // 만료된 윈도우 정리
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        windows.values().removeIf(w -> now - w.start >= windowMillis);
+    }
+
+    private static String userKey(String username) {
+        return "u:" + (username == null ? "" : username.toLowerCase());
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    private record Window(long start, int count) {}
+}
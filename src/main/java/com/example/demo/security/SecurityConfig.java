@@ -1,9 +1,12 @@
 package com.example.demo.security;
 
 import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -13,20 +16,26 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.hash.threads:0}") int threads,
+                                           @Value("${auth.hash.queueCapacity:32}") int queueCapacity,
+                                           @Value("${auth.hash.waitMillis:3000}") long waitMillis) {
+        // threads=0 이면 코어 수의 절반(최소 1)만 BCrypt 계산에 사용
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), n, queueCapacity, waitMillis);
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(UserRepository userRepository, JwtUtil jwtUtil) {
-        return new JwtAuthenticationFilter(userRepository, jwtUtil);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(UserRepository userRepository, JwtUtil jwtUtil, MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(userRepository, jwtUtil, meterRegistry);
     }
 
     @Bean
@@ -42,7 +51,10 @@ public class SecurityConfig {
                         .requestMatchers("/user/register", "/user/login").permitAll()
                         .requestMatchers("/user/api/register", "/user/api/login").permitAll()
                         .requestMatchers("/css/**", "/js/**").permitAll()
-                        .requestMatchers("/favicon.ico", "/favicon.svg").permitAll() // 파비콘 로딩 허용
+                        .requestMatchers("/favicon.ico", "/favicon*.svg").permitAll() // 파비콘 로딩 허용 (prod 는 내용 해시 URL /favicon-<md5>.svg)
+                        // 헬스체크만 공개. 메트릭(/actuator/prometheus)은 Bearer JWT 로 scrape (내부 구조/부하 정보 노출 방지)
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
                         // WebSocket(SockJS) 핸드셰이크 허용
                         .requestMatchers("/ws-endpoint/**").permitAll()
                         // Q&A는 목록/조회 GET 허용
@@ -55,6 +67,8 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
+                        // scraper 는 로그인 페이지 리다이렉트 대신 401
+                        .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED), new AntPathRequestMatcher("/actuator/**"))
                         .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/user/login"))
                 )
                 .formLogin(AbstractHttpConfigurer::disable)
@@ -0,0 +1,89 @@
+package com.example.demo.security;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * STOMP CONNECT 인증
+ * - 핸드셰이크가 이미 인증되어 있으면(폼 로그인 세션의 Principal / role 속성) 그것으로 StompPrincipal 을 만들고 토큰은 보지 않습니다.
+ *   대시보드는 페이지 로드 때 받은 토큰으로 계속 재연결하므로, 세션이 살아 있는 동안 토큰 만료로 재연결이 실패하지 않게 합니다.
+ * - 핸드셰이크가 익명이면 CONNECT 프레임의 Authorization: Bearer 토큰을 JwtUtil 로 한 번 검증하고 StompPrincipal 을 세션 사용자로 묶습니다.
+ *   (HTTP 세션이 없어도 되므로 STOMP 연결에 sticky session 이 필요 없음)
+ * - 그때 토큰이 잘못되었거나(만료 포함) 사용자가 없으면 CONNECT 를 거절합니다. (클라이언트는 ERROR 프레임을 받음)
+ */
+@Component
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final Counter invalidToken;
+    private final Counter unknownUser;
+
+    public StompAuthInterceptor(JwtUtil jwtUtil, UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.invalidToken = meterRegistry.counter("fan.auth.failures", "reason", "jwt_invalid", "channel", "ws");
+        this.unknownUser = meterRegistry.counter("fan.auth.failures", "reason", "jwt_unknown_user", "channel", "ws");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) return message;
+
+        StompPrincipal principal = fromHandshake(accessor.getUser(), accessor.getSessionAttributes());
+        if (principal == null) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (header != null && header.startsWith(BEARER)) principal = fromToken(message, header.substring(BEARER.length()));
+        }
+        if (principal != null) accessor.setUser(principal);
+        return message;
+    }
+
+    private StompPrincipal fromToken(Message<?> message, String token) {
+        Optional<Claims> claims = jwtUtil.verify(token);
+        if (claims.isEmpty() || claims.get().getSubject() == null) {
+            invalidToken.increment();
+            throw new MessagingException(message, "Invalid JWT token");
+        }
+        String username = claims.get().getSubject();
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            unknownUser.increment();
+            throw new MessagingException(message, "Unknown user");
+        }
+        Object role = claims.get().get("role");
+        return StompPrincipal.of(username, role != null && !role.toString().isBlank() ? role.toString() : user.get().getRole());
+    }
+
+    // 핸드셰이크 Principal 의 권한, 없으면 HTTP 세션에서 복사된 role 속성 (둘 다 없으면 익명 그대로)
+    private static StompPrincipal fromHandshake(Principal user, Map<String, Object> sessionAttributes) {
+        Object sessionRole = sessionAttributes == null ? null : sessionAttributes.get("role");
+        if (user instanceof Authentication auth && auth.isAuthenticated()) {
+            boolean admin = auth.getAuthorities() != null
+                    && auth.getAuthorities().stream().anyMatch(g -> "ADMIN".equals(g.getAuthority()));
+            return StompPrincipal.of(auth.getName(), admin || "ADMIN".equals(String.valueOf(sessionRole)) ? "ADMIN" : "USER");
+        }
+        if (sessionRole == null) return null;
+        Object username = sessionAttributes.get("username");
+        return StompPrincipal.of(username == null ? "session" : username.toString(), sessionRole.toString());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.security;
+
+import java.security.Principal;
+
+/**
+ * STOMP 세션에 묶이는 불변 사용자 정보
+ * - CONNECT 때 한 번 만들고, 이후 메시지의 권한 판정은 admin 필드만 읽습니다.
+ */
+public record StompPrincipal(String name, String role, boolean admin) implements Principal {
+
+    public static StompPrincipal of(String name, String role) {
+        String r = role == null || role.isBlank() ? "USER" : role;
+        return new StompPrincipal(name, r, "ADMIN".equals(r));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 알림 규칙 설정 (fan.alerts.rules[n].*)
+ * <pre>
+ * fan.alerts.rules[0].name=cpu-over-threshold
+ * fan.alerts.rules[0].kind=above            # above | below | count
+ * fan.alerts.rules[0].metric=cpuTemp        # cpuTemp | gpuTemp | actualPwm | model_result
+ * fan.alerts.rules[0].threshold-from=cpuThreshold   # 고정값이면 threshold=80
+ * fan.alerts.rules[0].sustain=30s           # 조건이 이 시간 동안 계속되면 발생
+ * fan.alerts.rules[0].hysteresis=2          # 임계값에서 이만큼 벗어나야 해제
+ * fan.alerts.rules[1].kind=count            # window 안에 metric == equals 가 count 번 이상이면 발생
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "fan.alerts")
+public record AlertProperties(@DefaultValue List<Rule> rules) {
+
+    public enum Kind { ABOVE, BELOW, COUNT }
+
+    /**
+     * @param thresholdFrom cpuThreshold | gpuThreshold: 현재 제어 상태의 임계값을 기준으로 (threshold 보다 우선)
+     * @param cooldown      해제 후 같은 규칙이 다시 발생하기까지 최소 간격 (깜박임 억제)
+     */
+    public record Rule(String name,
+                       Kind kind,
+                       String metric,
+                       Double threshold,
+                       String thresholdFrom,
+                       @DefaultValue("0s") Duration sustain,
+                       @DefaultValue("0") double hysteresis,
+                       @DefaultValue("0") double equals,
+                       @DefaultValue("1") int count,
+                       @DefaultValue("5m") Duration window,
+                       @DefaultValue("warning") String severity,
+                       @DefaultValue("60s") Duration cooldown) {
+    }
+}
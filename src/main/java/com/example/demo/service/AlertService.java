@@ -0,0 +1,247 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 텔레메트리 알림 규칙 엔진
+ * - 브리지 프레임이 도착할 때마다 모든 규칙을 평가합니다. (Influx 재조회 없음)
+ * - 규칙은 시작 시 배열로 컴파일하고, 장치별 상태도 규칙 인덱스로 접근하는 배열이라 프레임당 할당이 없습니다.
+ *   (발생/해제 전이 때만 이벤트 객체를 만듦)
+ * - above/below: 조건이 sustain 동안 계속되면 발생, 임계값에서 hysteresis 만큼 벗어나면 해제
+ * - count: window 안에 metric == equals 인 샘플이 count 번 이상이면 발생, window 동안 한 번도 없으면 해제
+ * - 상태가 바뀔 때만 /topic/alerts 로 보내고(중복 제거), 해제 후 cooldown 이 지나기 전에는 다시 발생시키지 않습니다.
+ */
+@Service
+public class AlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+    public static final String TOPIC = "/topic/alerts";
+    private static final String DEFAULT_DEVICE = "bridge";
+
+    // 규칙 metric 이름 → 프레임 키
+    private static final String[] METRICS = {"cpuTemp", "gpuTemp", "actualPwm", "model_result"};
+    private static final String[] FRAME_KEYS = {"cpuTemp", "gpuTemp", "pwm_value", "model_result"};
+
+    /** 발생/해제 이벤트 (/topic/alerts 페이로드) */
+    public record AlertEvent(String rule, String device, String state, String severity,
+                             String metric, double value, Double threshold, long at, String message) {}
+
+    private final FanBridgeService bridge;
+    private final SimpMessagingTemplate broker;
+    private final MeterRegistry meterRegistry;
+    private final Compiled[] rules;
+    private final int ringSize;
+    private final FanBridgeService.FrameListener listener = (frame, origin, received) -> evaluate(frame, received);
+
+    // 평가는 브리지 수신 스레드에서만 (synchronized), 현재 발생 중인 알림은 다른 스레드에서도 읽음
+    private final Map<String, DeviceState> devices = new HashMap<>();
+    private final double[] values = new double[METRICS.length];
+    private final Map<String, AlertEvent> active = new ConcurrentHashMap<>();
+
+    public AlertService(FanBridgeService bridge, SimpMessagingTemplate broker, AlertProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.bridge = bridge;
+        this.broker = broker;
+        this.meterRegistry = meterRegistry;
+        List<AlertProperties.Rule> configured = properties.rules() == null ? List.of() : properties.rules();
+        this.rules = new Compiled[configured.size()];
+        int ring = 0;
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = Compiled.of(configured.get(i), ring);
+            if (rules[i].kind == AlertProperties.Kind.COUNT) ring += rules[i].count;
+        }
+        this.ringSize = ring;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (rules.length == 0) return;
+        bridge.addFrameListener(listener);
+        log.info("[alerts] {} rule(s) active", rules.length);
+    }
+
+    @PreDestroy
+    public void stop() {
+        bridge.removeFrameListener(listener);
+    }
+
+    /** 현재 발생 중인 알림 (새 구독자 초기 상태용) */
+    public Collection<AlertEvent> active() {
+        return List.copyOf(active.values());
+    }
+
+    synchronized void evaluate(Map<String, Object> frame, long now) {
+        for (int m = 0; m < METRICS.length; m++) {
+            values[m] = frame.get(FRAME_KEYS[m]) instanceof Number n ? n.doubleValue() : Double.NaN;
+        }
+        String device = frame.get("device") instanceof String s && !s.isBlank() ? s : DEFAULT_DEVICE;
+        DeviceState d = devices.computeIfAbsent(device, k -> new DeviceState(rules.length, ringSize));
+        ControlState control = bridge.getControlState();
+        for (int r = 0; r < rules.length; r++) {
+            Compiled rule = rules[r];
+            double v = values[rule.metric];
+            if (Double.isNaN(v)) continue;
+            if (rule.kind == AlertProperties.Kind.COUNT) evaluateCount(rule, r, d, device, v, now);
+            else evaluateThreshold(rule, r, d, device, v, rule.threshold(control), now);
+        }
+    }
+
+    private void evaluateThreshold(Compiled rule, int r, DeviceState d, String device, double v, double th, long now) {
+        boolean above = rule.kind == AlertProperties.Kind.ABOVE;
+        if (!d.firing[r]) {
+            if (above ? v <= th : v >= th) {
+                d.since[r] = 0;
+                return;
+            }
+            if (d.since[r] == 0) d.since[r] = now;
+            if (now - d.since[r] >= rule.sustainMillis && now - d.resolvedAt[r] >= rule.cooldownMillis) {
+                fire(rule, r, d, device, v, th, now, String.format("%s %.1f %s %.1f for %ds",
+                        rule.metricName(), v, above ? ">" : "<", th, (now - d.since[r]) / 1000));
+            }
+        } else if (above ? v <= th - rule.hysteresis : v >= th + rule.hysteresis) {
+            d.since[r] = 0;
+            resolve(rule, r, d, device, v, th, now);
+        }
+    }
+
+    private void evaluateCount(Compiled rule, int r, DeviceState d, String device, double v, long now) {
+        if (v == rule.equals) {
+            // 규칙별 길이 count 의 원형 버퍼에 최근 일치 시각을 기록, head 는 가장 오래된 칸
+            d.ring[rule.ringOffset + d.head[r]] = now;
+            d.head[r] = (d.head[r] + 1) % rule.count;
+            d.lastMatch[r] = now;
+        }
+        long oldest = d.ring[rule.ringOffset + d.head[r]];
+        boolean breach = oldest > 0 && now - oldest <= rule.windowMillis;
+        if (!d.firing[r]) {
+            if (breach && now - d.resolvedAt[r] >= rule.cooldownMillis) {
+                fire(rule, r, d, device, v, null, now, String.format("%d x %s == %s within %ds",
+                        rule.count, rule.metricName(), trim(rule.equals), rule.windowMillis / 1000));
+            }
+        } else if (now - d.lastMatch[r] > rule.windowMillis) {
+            resolve(rule, r, d, device, v, null, now);
+        }
+    }
+
+    private void fire(Compiled rule, int r, DeviceState d, String device, double v, Double th, long now, String message) {
+        d.firing[r] = true;
+        AlertEvent e = new AlertEvent(rule.name, device, "FIRING", rule.severity, rule.metricName(), v, th, now, message);
+        active.put(rule.name + "@" + device, e);
+        publish(e);
+    }
+
+    private void resolve(Compiled rule, int r, DeviceState d, String device, double v, Double th, long now) {
+        d.firing[r] = false;
+        d.resolvedAt[r] = now;
+        active.remove(rule.name + "@" + device);
+        publish(new AlertEvent(rule.name, device, "RESOLVED", rule.severity, rule.metricName(), v, th, now, rule.name + " resolved"));
+    }
+
+    private void publish(AlertEvent e) {
+        meterRegistry.counter("fan.alerts.events", "rule", e.rule(), "state", e.state()).increment();
+        log.info("[alerts] {} {} ({}): {}", e.state(), e.rule(), e.device(), e.message());
+        try {
+            broker.convertAndSend(TOPIC, e);
+        } catch (Exception ex) {
+            log.debug("[alerts] publish fail: {}", ex.toString());
+        }
+    }
+
+    private static String trim(double v) {
+        return v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v);
+    }
+
+    /** 평가용으로 정리한 규칙 */
+    private static final class Compiled {
+        final String name;
+        final AlertProperties.Kind kind;
+        final int metric;
+        final double threshold;
+        final int thresholdFrom; // -1 고정값, 0 cpuThreshold, 1 gpuThreshold
+        final long sustainMillis;
+        final double hysteresis;
+        final double equals;
+        final int count;
+        final long windowMillis;
+        final String severity;
+        final long cooldownMillis;
+        final int ringOffset;
+
+        private Compiled(AlertProperties.Rule r, int metric, int thresholdFrom, int ringOffset) {
+            this.name = r.name();
+            this.kind = r.kind();
+            this.metric = metric;
+            this.threshold = r.threshold() == null ? Double.NaN : r.threshold();
+            this.thresholdFrom = thresholdFrom;
+            this.sustainMillis = r.sustain().toMillis();
+            this.hysteresis = r.hysteresis();
+            this.equals = r.equals();
+            this.count = Math.max(1, r.count());
+            this.windowMillis = r.window().toMillis();
+            this.severity = r.severity();
+            this.cooldownMillis = r.cooldown().toMillis();
+            this.ringOffset = ringOffset;
+        }
+
+        /** @throws IllegalStateException 설정이 잘못된 규칙 (시작 시 바로 실패) */
+        static Compiled of(AlertProperties.Rule r, int ringOffset) {
+            if (r.name() == null || r.name().isBlank()) throw new IllegalStateException("fan.alerts rule without name");
+            if (r.kind() == null) throw new IllegalStateException("fan.alerts rule '" + r.name() + "' has no kind");
+            int metric = Arrays.asList(METRICS).indexOf(r.metric());
+            if (metric < 0) throw new IllegalStateException("fan.alerts rule '" + r.name() + "': unknown metric " + r.metric());
+            int from = -1;
+            if (r.kind() != AlertProperties.Kind.COUNT) {
+                if ("cpuThreshold".equals(r.thresholdFrom())) from = 0;
+                else if ("gpuThreshold".equals(r.thresholdFrom())) from = 1;
+                else if (r.thresholdFrom() != null) throw new IllegalStateException("fan.alerts rule '" + r.name() + "': unknown threshold-from " + r.thresholdFrom());
+                else if (r.threshold() == null) throw new IllegalStateException("fan.alerts rule '" + r.name() + "' needs threshold or threshold-from");
+            }
+            return new Compiled(r, metric, from, ringOffset);
+        }
+
+        double threshold(ControlState control) {
+            return switch (thresholdFrom) {
+                case 0 -> control.cpuThreshold();
+                case 1 -> control.gpuThreshold();
+                default -> threshold;
+            };
+        }
+
+        String metricName() {
+            return METRICS[metric];
+        }
+    }
+
+    /** 장치 하나의 규칙별 상태 (규칙 인덱스로 접근) */
+    private static final class DeviceState {
+        final boolean[] firing;
+        final long[] since;
+        final long[] resolvedAt;
+        final long[] lastMatch;
+        final int[] head;
+        final long[] ring;
+
+        DeviceState(int rules, int ringSize) {
+            firing = new boolean[rules];
+            since = new long[rules];
+            resolvedAt = new long[rules];
+            Arrays.fill(resolvedAt, Long.MIN_VALUE / 2);
+            lastMatch = new long[rules];
+            head = new int[rules];
+            ring = new long[ringSize];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 외부 의존성(Influx 등) 호출용 회로 차단기
+ * - CLOSED: 그대로 호출, 연속 실패가 failureThreshold 에 닿으면 OPEN
+ * - OPEN: openMillis 동안 호출하지 않고 즉시 실패
+ * - HALF_OPEN: OPEN 시간이 지나면 호출 하나만 시험으로 통과시켜, 성공하면 CLOSED / 실패하면 다시 OPEN
+ * 호출 빈도가 낮은 경로(초당 수 회)용이라 단순히 synchronized 로 상태를 지킵니다.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /** 지금 호출해도 되는지. true 를 받았다면 결과를 onSuccess / onFailure / release 로 반드시 알려야 합니다. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> {
+                if (probing) yield false;
+                probing = true;
+                yield true;
+            }
+            case OPEN -> false;
+        };
+    }
+
+    /** tryAcquire 가 지금 통과시킬지 (상태는 바꾸지 않음, 응답을 시작하기 전 사전 확인용) */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> !probing;
+            case OPEN -> clock.getAsLong() - openedAt >= openMillis;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probing = false;
+    }
+
+    public synchronized void onFailure() {
+        probing = false;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            failures = 0;
+        }
+    }
+
+    /**
+     * 결과를 모르고 끝난 호출(호출자 취소 등): 상태와 실패 횟수는 그대로 두고 HALF_OPEN 시험 슬롯만 반납합니다.
+     * 다음 tryAcquire 가 다시 시험 호출을 할 수 있습니다.
+     */
+    public synchronized void release() {
+        probing = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
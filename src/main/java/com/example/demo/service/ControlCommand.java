@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 팬 제어 명령 (STOMP /ws/control, REST /api/control 공통)
+ * - SPEED: AUTOMATIC 또는 MANUAL(pwm 0~100)
+ * - TEMP : CPU/GPU 임계값 (브리지에는 mode=range 로 전달)
+ */
+public record ControlCommand(Dimension dimension, boolean manual, int pwm, int cpuThreshold, int gpuThreshold) {
+
+    public enum Dimension { SPEED, TEMP }
+
+    private static final int MAX_THRESHOLD = 150;
+
+    /**
+     * 대시보드 요청 본문을 명령으로 변환합니다.
+     * @throws IllegalArgumentException 숫자가 아니거나 범위를 벗어난 값
+     */
+    public static ControlCommand from(Map<String, Object> body) {
+        String dim = String.valueOf(body.getOrDefault("dimension", "SPEED"));
+        if ("TEMP".equalsIgnoreCase(dim)) {
+            return new ControlCommand(Dimension.TEMP, false, 0,
+                    intIn(body, "cpuThreshold", 60, 0, MAX_THRESHOLD),
+                    intIn(body, "gpuThreshold", 60, 0, MAX_THRESHOLD));
+        }
+        boolean manual = "MANUAL".equalsIgnoreCase(String.valueOf(body.getOrDefault("mode", "AUTOMATIC")));
+        return new ControlCommand(Dimension.SPEED, manual, manual ? intIn(body, "pwm", 0, 0, 100) : 0, 0, 0);
+    }
+
+    /** 수동 PWM 과 임계값 변경은 ADMIN 만 */
+    public boolean requiresAdmin() {
+        return dimension == Dimension.TEMP || manual;
+    }
+
+    public String adminRequiredMessage() {
+        return dimension == Dimension.TEMP ? "TEMP threshold requires ADMIN" : "MANUAL mode requires ADMIN";
+    }
+
+    /** 브리지 프로토콜의 mode 값 (auto | manual | range) */
+    public String bridgeMode() {
+        if (dimension == Dimension.TEMP) return "range";
+        return manual ? "manual" : "auto";
+    }
+
+    /** 브리지로 보내는 JSON 본문 */
+    public Map<String, Object> toBridgePayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("mode", bridgeMode());
+        if (dimension == Dimension.TEMP) {
+            payload.put("cpu_threshold", cpuThreshold);
+            payload.put("gpu_threshold", gpuThreshold);
+        } else if (manual) {
+            payload.put("manual_pwm", pwm);
+        }
+        return payload;
+    }
+
+    private static int intIn(Map<String, Object> body, String key, int defaultValue, int min, int max) {
+        Object v = body.get(key);
+        int n;
+        if (v == null) {
+            n = defaultValue;
+        } else if (v instanceof Number num) {
+            n = num.intValue();
+        } else {
+            try {
+                n = Integer.parseInt(String.valueOf(v).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + " must be a number");
+            }
+        }
+        if (n < min || n > max) throw new IllegalArgumentException(key + " must be between " + min + " and " + max);
+        return n;
+    }
+}
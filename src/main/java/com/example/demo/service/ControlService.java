@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 팬 제어 명령 처리 (STOMP / REST 공통)
+ * - 권한 검사 → 로컬 상태 반영 → 낙관적 스냅샷 1회 발행 → 브리지 전송 → 확정 스냅샷 1회 발행
+ * - 스냅샷은 캐시된 Influx 값으로 만들어 요청 스레드에서 Influx 를 조회하지 않습니다.
+ * - /topic/telemetry(모든 구독 등급)에는 상태 스냅샷만 보내고, 성공/오류 결과는 호출자에게만 돌려줍니다.
+ * - 호출자(세션)와 명령 종류(SPEED / TEMP)별로 minIntervalMillis 에 한 번만 적용하고, 그 사이에 들어온 같은 종류의 명령은
+ *   마지막 것 하나로 합칩니다. 다른 종류끼리는 합치지 않습니다. (임계값 변경 직후 속도 명령이 와도 둘 다 적용)
+ *   (브리지 장치가 하나뿐이므로 세션 키가 곧 세션+장치 키)
+ */
+@Service
+public class ControlService {
+
+    private static final Logger log = LoggerFactory.getLogger(ControlService.class);
+    // 브리지가 끊긴 동안에는 명령마다 실패하므로 간격당 한 줄만 남김 (건수는 응답과 fan.control.commands 로 확인)
+    private static final RateLimitedLogger sampled = new RateLimitedLogger(log, 10_000);
+    private static final long IDLE_SLOT_MILLIS = 60_000;
+
+    /** 처리 결과 (거절 시 error 에 사유) */
+    public record Result(boolean ok, String error) {
+        static Result accepted() { return new Result(true, null); }
+        static Result rejected(String error) { return new Result(false, error); }
+    }
+
+    private final FanBridgeService bridge;
+    private final TelemetryService telemetry;
+    private final TelemetryTierService tiers;
+    private final TelemetryJournal journal;
+    private final MeterRegistry meterRegistry;
+    private final long minIntervalMillis;
+    private final Counter coalesced;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "control-coalesce");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ControlService(FanBridgeService bridge, TelemetryService telemetry, TelemetryTierService tiers,
+                          TelemetryJournal journal, MeterRegistry meterRegistry,
+                          @Value("${fan.control.minIntervalMillis:250}") long minIntervalMillis) {
+        this.bridge = bridge;
+        this.telemetry = telemetry;
+        this.tiers = tiers;
+        this.journal = journal;
+        this.meterRegistry = meterRegistry;
+        this.minIntervalMillis = minIntervalMillis;
+        this.coalesced = meterRegistry.counter("fan.control.coalesced");
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * @param admin   호출자가 ADMIN 인지 (컨트롤러에서 한 번 판정)
+     * @param channel 메트릭 태그 (ws | http)
+     * @param caller  속도 제한 단위 (STOMP/HTTP 세션 ID, 명령 종류별로 따로), null 이면 제한 없이 바로 적용
+     * @return 호출자에게 돌려줄 결과. 거절은 즉시, 수락은 브리지 전송이 끝나면 완료됩니다.
+     *         브리지 전송에 실패해도 로컬 상태와 확정 스냅샷은 그대로 발행됩니다.
+     *         같은 종류의 더 새 명령에 합쳐진 명령은 그 명령의 결과로 완료됩니다.
+     */
+    public CompletableFuture<Result> submit(ControlCommand command, boolean admin, String channel, String caller) {
+        if (command.requiresAdmin() && !admin) {
+            meterRegistry.counter("fan.auth.failures", "reason", "control_forbidden", "channel", channel).increment();
+            return CompletableFuture.completedFuture(Result.rejected(command.adminRequiredMessage()));
+        }
+        if (caller == null || minIntervalMillis <= 0) return apply(command, channel);
+
+        Slot slot = slots.computeIfAbsent(caller + '|' + command.dimension(), k -> new Slot());
+        synchronized (slot) {
+            long now = System.currentTimeMillis();
+            long wait = slot.lastAppliedAt + minIntervalMillis - now;
+            if (slot.pending == null && wait <= 0) {
+                slot.lastAppliedAt = now;
+            } else {
+                if (slot.pending != null) coalesced.increment();
+                else slot.waiting = new CompletableFuture<>();
+                slot.pending = command;
+                slot.channel = channel;
+                if (!slot.flushScheduled) {
+                    slot.flushScheduled = true;
+                    flusher.schedule(() -> flush(slot), Math.max(0, wait), TimeUnit.MILLISECONDS);
+                }
+                return slot.waiting;
+            }
+        }
+        return apply(command, channel);
+    }
+
+    // 보류 중인 마지막 명령을 적용하고, 합쳐진 호출자들에게 같은 결과를 전달
+    private void flush(Slot slot) {
+        ControlCommand command;
+        String channel;
+        CompletableFuture<Result> waiting;
+        synchronized (slot) {
+            command = slot.pending;
+            channel = slot.channel;
+            waiting = slot.waiting;
+            slot.pending = null;
+            slot.waiting = null;
+            slot.flushScheduled = false;
+            slot.lastAppliedAt = System.currentTimeMillis();
+        }
+        if (command == null) return;
+        try {
+            apply(command, channel).whenComplete((r, e) -> waiting.complete(e == null ? r : Result.rejected("control failed")));
+        } catch (Exception e) {
+            log.warn("[control] apply failed: {}", e.toString());
+            waiting.complete(Result.rejected("control failed"));
+        }
+    }
+
+    private CompletableFuture<Result> apply(ControlCommand command, String channel) {
+        Map<String, Object> payload = command.toBridgePayload();
+        meterRegistry.counter("fan.control.commands", "mode", command.bridgeMode().toUpperCase(), "channel", channel).increment();
+
+        // 서버 상태를 먼저 바꿔 새로고침 시에도 유지되게 하고, 바뀐 상태로 낙관적 스냅샷을 발행
+        journal.appendControl(bridge.applyLocalControl(command));
+        tiers.publishNow(telemetry.publishLocal());
+
+        return bridge.sendControl(payload).handle((ok, err) -> {
+            tiers.publishNow(telemetry.publishLocal());
+            if (err != null) {
+                sampled.warn("bridge-send", "[control] bridge send failed: {}", err.toString());
+                return Result.rejected("bridge not connected");
+            }
+            return Result.accepted();
+        });
+    }
+
+    // 오래 쓰지 않은 세션의 슬롯 정리
+    @Scheduled(fixedDelay = 60000)
+    public void purgeIdle() {
+        long now = System.currentTimeMillis();
+        slots.entrySet().removeIf(e -> {
+            Slot s = e.getValue();
+            synchronized (s) {
+                return s.pending == null && now - s.lastAppliedAt > IDLE_SLOT_MILLIS;
+            }
+        });
+    }
+
+    // (호출자, 명령 종류)별 마지막 적용 시각과 보류 중인 명령 (slot 자체를 잠금으로 사용)
+    private static final class Slot {
+        private long lastAppliedAt;
+        private ControlCommand pending;
+        private String channel;
+        private CompletableFuture<Result> waiting;
+        private boolean flushScheduled;
+    }
+}
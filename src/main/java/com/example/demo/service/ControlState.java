@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+/**
+ * 팬 제어 상태의 불변 값 (FanBridgeService 가 AtomicReference 하나로 교체)
+ * - 모드/PWM/임계값을 한 번에 읽으므로 "MANUAL 인데 이전 PWM" 같은 섞인 상태가 보이지 않습니다.
+ * - version 은 제어 명령이 반영될 때마다 1씩 증가합니다.
+ */
+public record ControlState(long version, boolean manual, int manualPwm, int cpuThreshold, int gpuThreshold) {
+
+    public static final ControlState INITIAL = new ControlState(0, false, 0, 60, 60);
+
+    /** UI 모드 이름 (AUTOMATIC | MANUAL, 임계값 제어(range)도 MANUAL) */
+    public String mode() {
+        return manual ? "MANUAL" : "AUTOMATIC";
+    }
+
+    /** 명령을 반영한 다음 상태 */
+    public ControlState apply(ControlCommand c) {
+        if (c.dimension() == ControlCommand.Dimension.TEMP) {
+            return new ControlState(version + 1, true, manualPwm, c.cpuThreshold(), c.gpuThreshold());
+        }
+        return c.manual()
+                ? new ControlState(version + 1, true, c.pwm(), cpuThreshold, gpuThreshold)
+                : new ControlState(version + 1, false, manualPwm, cpuThreshold, gpuThreshold);
+    }
+}
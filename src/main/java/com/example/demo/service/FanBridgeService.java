@@ -2,12 +2,17 @@ package com.example.demo.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
@@ -15,16 +20,20 @@ import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class FanBridgeService {
 
     private static final Logger log = LoggerFactory.getLogger(FanBridgeService.class);
+    // 브리지가 내려가 있거나 깨진 프레임이 이어질 때 재연결/파싱 실패 로그가 초당 수십 줄씩 쌓이지 않게
+    private static final RateLimitedLogger sampled = new RateLimitedLogger(log, 30_000);
 
     private final String wsUrl;
     private final long retryMillis;
@@ -36,31 +45,77 @@ public class FanBridgeService {
         return t;
     });
 
+    // Influx 최근 값 캐시 갱신 전용 스레드: 조회가 타임아웃까지 걸려도 ping/재연결과 텔레메트리 푸시는 기다리지 않음
+    private static final long INFLUX_REFRESH_MILLIS = 1000;
+    private final ScheduledExecutorService influxRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fan-influx-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // vt 프로파일(spring.threads.virtual.enabled=true)에서는 스케줄러는 타이밍만 담당하고
+    // 실제 작업(연결/ping/수신 콜백)은 가상 스레드에서 실행합니다. 그 외에는 스케줄러 스레드에서 바로 실행합니다.
+    private final Executor worker;
+    private final boolean virtualThreads;
+
     private final AtomicReference<WebSocket> socketRef = new AtomicReference<>();
     private final AtomicReference<Map<String, Object>> lastTelemetry = new AtomicReference<>(Map.of());
-    private final AtomicReference<String> lastMode = new AtomicReference<>("AUTOMATIC");
-    private final AtomicReference<Integer> lastCpuTh = new AtomicReference<>(60);
-    private final AtomicReference<Integer> lastGpuTh = new AtomicReference<>(60);
-    private final AtomicReference<Integer> lastManualPwm = new AtomicReference<>(0);
+    private final AtomicLong lastFrameAt = new AtomicLong();
+    private final AtomicLong lastFrameOrigin = new AtomicLong(); // 브리지가 프레임에 찍은 생성 시각(ts), 없으면 0
+    // 모드/PWM/임계값은 불변 값 하나로 CAS 교체 (읽는 쪽이 섞인 상태를 보지 않음)
+    private final AtomicReference<ControlState> controlState = new AtomicReference<>(ControlState.INITIAL);
+    // 마지막 Influx 조회 결과 (refreshInflux 에서만 갱신, 1초마다 전용 스레드에서 호출, 스냅샷은 이 캐시로 만듦)
+    private volatile Map<String, Object> lastInflux = Map.of();
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final InfluxService influxService;
 
+    private final Timer snapshotTimer;
+    private final Counter parseFailures;
+    private final TelemetryLatencyRecorder latency;
+    private final List<FrameListener> frameListeners = new CopyOnWriteArrayList<>();
+
+    /** 파싱된 브리지 프레임 수신 콜백 (브리지 수신 스레드에서 호출되므로 막히지 않게 처리해야 함) */
+    @FunctionalInterface
+    public interface FrameListener {
+        /** @param originMillis 프레임의 ts (없으면 0) */
+        void onFrame(Map<String, Object> frame, long originMillis, long receivedMillis);
+    }
+
     public FanBridgeService(@Value("${fan.bridge.wsUrl}") String wsUrl,
                             @Value("${fan.bridge.connectRetryMillis:3000}") long retryMillis,
                             @Value("${fan.bridge.pingIntervalMillis:1000}") long pingIntervalMillis,
-                            @Autowired(required = false) InfluxService influxService) {
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Autowired(required = false) InfluxService influxService,
+                            MeterRegistry meterRegistry,
+                            TelemetryLatencyRecorder latency) {
         this.wsUrl = wsUrl;
         this.retryMillis = retryMillis;
         this.pingIntervalMillis = pingIntervalMillis;
+        this.virtualThreads = virtualThreads;
+        this.worker = virtualThreads ? new VirtualThreadTaskExecutor("fan-bridge-vt-") : Runnable::run;
         this.influxService = influxService;
+        this.latency = latency;
+
+        this.snapshotTimer = meterRegistry.timer("fan.telemetry.snapshot.build");
+        this.parseFailures = meterRegistry.counter("fan.bridge.parse.failures");
+        Gauge.builder("fan.bridge.connected", socketRef, r -> r.get() == null ? 0 : 1)
+                .description("1 if the Python bridge WebSocket is connected")
+                .register(meterRegistry);
+        Gauge.builder("fan.bridge.frame.age", lastFrameAt, t -> t.get() == 0 ? Double.NaN : (System.currentTimeMillis() - t.get()) / 1000.0)
+                .description("seconds since the last telemetry frame from the bridge")
+                .baseUnit("seconds")
+                .register(meterRegistry);
     }
 
     @PostConstruct
     public void start() {
-        scheduler.schedule(this::ensureConnected, 0, TimeUnit.MILLISECONDS);
+        scheduleReconnect(0);
+        if (influxService != null) {
+            influxRefresher.scheduleWithFixedDelay(this::refreshInflux, 0, INFLUX_REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        }
         // 주기적 ping 또는 텔레메트리 요청이 필요하다면 사용
-        scheduler.scheduleAtFixedRate(() -> {
+        scheduler.scheduleAtFixedRate(onWorker(() -> {
             try {
                 WebSocket ws = socketRef.get();
                 if (ws != null) {
@@ -69,37 +124,48 @@ public class FanBridgeService {
             } catch (Throwable e) {
                 log.debug("ping fail: {}", e.toString());
             }
-        }, pingIntervalMillis, pingIntervalMillis, TimeUnit.MILLISECONDS);
+        }), pingIntervalMillis, pingIntervalMillis, TimeUnit.MILLISECONDS);
     }
 
     @PreDestroy
     public void stop() {
         try { Optional.ofNullable(socketRef.get()).ifPresent(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye")); } catch (Exception ignore) {}
         scheduler.shutdownNow();
+        influxRefresher.shutdownNow();
+    }
+
+    private Runnable onWorker(Runnable task) {
+        return () -> worker.execute(task);
+    }
+
+    private void scheduleReconnect(long delayMillis) {
+        scheduler.schedule(onWorker(this::ensureConnected), delayMillis, TimeUnit.MILLISECONDS);
     }
 
     private void ensureConnected() {
         try {
             if (socketRef.get() != null) return;
-            log.info("[bridge] connecting to {}", wsUrl);
-            HttpClient client = HttpClient.newHttpClient();
+            sampled.info("connect", "[bridge] connecting to {}", wsUrl);
+            HttpClient.Builder builder = HttpClient.newBuilder();
+            if (virtualThreads) builder.executor(worker);
+            HttpClient client = builder.build();
             CompletableFuture<WebSocket> cf = client.newWebSocketBuilder()
                     .connectTimeout(Duration.ofSeconds(5))
                     .buildAsync(URI.create(wsUrl), new Listener());
             cf.whenComplete((ws, err) -> {
                 if (err != null) {
-                    log.warn("[bridge] connect fail: {}", err.toString());
+                    sampled.warn("connect-fail", "[bridge] connect fail: {}", err.toString());
                     socketRef.set(null);
-                    scheduler.schedule(this::ensureConnected, retryMillis, TimeUnit.MILLISECONDS);
+                    scheduleReconnect(retryMillis);
                 } else {
                     log.info("[bridge] connected");
                     socketRef.set(ws);
                 }
             });
         } catch (Throwable t) {
-            log.warn("[bridge] connect error: {}", t.toString());
+            sampled.warn("connect-fail", "[bridge] connect error: {}", t.toString());
             socketRef.set(null);
-            scheduler.schedule(this::ensureConnected, retryMillis, TimeUnit.MILLISECONDS);
+            scheduleReconnect(retryMillis);
         }
     }
 
@@ -107,54 +173,72 @@ public class FanBridgeService {
         return lastTelemetry.get();
     }
 
+    /** 마지막 브리지 프레임 수신 시각(epoch ms), 아직 없으면 0 */
+    public long getLastFrameReceivedAt() {
+        return lastFrameAt.get();
+    }
+
+    /** 마지막 브리지 프레임의 생성 시각(epoch ms), 브리지가 ts 를 보내지 않으면 0 */
+    public long getLastFrameOriginAt() {
+        return lastFrameOrigin.get();
+    }
+
+    /** Influx 를 다시 조회한 뒤 UI 스냅샷을 만듭니다. (블로킹, 요청 스레드에서는 getCachedUiTelemetry 사용) */
     public Map<String, Object> getUiTelemetry() {
-        Map<String, Object> ext = lastTelemetry.get();
-        Map<String, Object> influx = Map.of();
+        refreshInflux();
+        return getCachedUiTelemetry();
+    }
+
+    /** 브리지 최신 프레임 + 로컬 제어 상태 + 캐시된 Influx 값으로 UI 스냅샷을 만듭니다. (I/O 없음) */
+    public Map<String, Object> getCachedUiTelemetry() {
+        return snapshotTimer.record(this::buildUiTelemetry);
+    }
+
+    /** Influx 최신 측정값을 조회해 캐시를 갱신합니다. 실패하면 이전 값을 유지합니다. */
+    public void refreshInflux() {
+        if (influxService == null) return;
         try {
-            if (influxService != null) influx = influxService.latestTemps();
+            lastInflux = influxService.latestTemps();
         } catch (Exception e) { log.debug("influx read fail: {}", e.toString()); }
+    }
 
-        String mode = normalizeMode(lastMode.get());
+    private Map<String, Object> buildUiTelemetry() {
+        Map<String, Object> ext = lastTelemetry.get();
+        Map<String, Object> influx = lastInflux;
+
+        ControlState control = controlState.get();
+        String mode = control.mode();
         int cpuTemp = toInt(ext.getOrDefault("cpuTemp", influx.getOrDefault("cpuTemp", 0)));
         int gpuTemp = toInt(ext.getOrDefault("gpuTemp", influx.getOrDefault("gpuTemp", 0)));
         int actualPwm = toInt(ext.getOrDefault("pwm_value", influx.getOrDefault("pwm_value",0)));
-        int pwm = toInt(ext.getOrDefault("pwm", ext.getOrDefault("setPwm", lastManualPwm.get())));
+        int pwm = control.manual() ? control.manualPwm() : toInt(ext.getOrDefault("pwm", ext.getOrDefault("setPwm", control.manualPwm())));
         int code = toInt(ext.getOrDefault("model_result", influx.getOrDefault("model_result", -1)));
         String label = code < 0 ? "Unknown" : (code == 0 ? "Abnormal" : "Normal");
-        int cpuTh = Optional.ofNullable(lastCpuTh.get()).orElse(60);
-        int gpuTh = Optional.ofNullable(lastGpuTh.get()).orElse(60);
         return Map.of(
                 "timestamp", java.time.Instant.now().toString(),
                 "cpuTemp", cpuTemp,
                 "gpuTemp", gpuTemp,
                 "model", Map.of("code", code < 0 ? 0 : code, "label", label),
-                "setPwm", mode.equals("MANUAL") ? lastManualPwm.get() : pwm,
+                "setPwm", pwm,
                 "actualPwm", actualPwm,
                 "mode", mode,
-                "cpuThreshold", cpuTh,
-                "gpuThreshold", gpuTh
+                "cpuThreshold", control.cpuThreshold(),
+                "gpuThreshold", control.gpuThreshold()
         );
     }
 
-    private String normalizeMode(String m){ if (m==null) return "AUTOMATIC"; m=m.toUpperCase(); return switch(m){ case "MANUAL","RANGE" -> "MANUAL"; default -> "AUTOMATIC"; }; }
     private int toInt(Object o){ if(o instanceof Number n) return n.intValue(); try{ return Integer.parseInt(String.valueOf(o)); }catch(Exception e){ return 0; } }
 
+    // 브리지로 전송만 합니다. 로컬 상태 반영은 applyLocalControl (ControlService 에서 한 번)
     public CompletableFuture<Void> sendControl(Map<String, Object> payload) {
-        // 상태 추적 업데이트
-        Object m = payload.get("mode");
-        if (m instanceof String sm) { lastMode.set(normalizeMode(sm)); }
-        if (payload.containsKey("cpu_threshold")) lastCpuTh.set(toInt(payload.get("cpu_threshold")));
-        if (payload.containsKey("gpu_threshold")) lastGpuTh.set(toInt(payload.get("gpu_threshold")));
-        if (payload.containsKey("manual_pwm")) lastManualPwm.set(toInt(payload.get("manual_pwm")));
-
         WebSocket ws = socketRef.get();
         if (ws == null) {
-            ensureConnected();
+            // 재연결은 scheduleReconnect 가 이미 주기적으로 시도하므로 요청 스레드에서 연결하지 않음
             return CompletableFuture.failedFuture(new IllegalStateException("bridge not connected"));
         }
         try {
             String json = mapper.writeValueAsString(payload);
-            log.info("[bridge] send: {}", json);
+            if (log.isDebugEnabled()) log.debug("[bridge] send: {}", json);
             return ws.sendText(json, true).thenAccept(seq -> {});
         } catch (Exception e) {
             return CompletableFuture.failedFuture(e);
@@ -163,15 +247,81 @@ public class FanBridgeService {
 
     /**
      * Apply local control state optimistically without sending to the external bridge.
-     * This updates lastMode/lastManualPwm/thresholds so getUiTelemetry() reflects the
+     * The new state is swapped in with a single CAS so getUiTelemetry() reflects the
      * requested state immediately (useful for optimistic UI updates and page refreshes).
+     * @return the state after this command
      */
-    public void applyLocalControl(Map<String, Object> payload) {
-        Object m = payload.get("mode");
-        if (m instanceof String sm) { lastMode.set(normalizeMode(sm)); }
-        if (payload.containsKey("cpu_threshold")) lastCpuTh.set(toInt(payload.get("cpu_threshold")));
-        if (payload.containsKey("gpu_threshold")) lastGpuTh.set(toInt(payload.get("gpu_threshold")));
-        if (payload.containsKey("manual_pwm")) lastManualPwm.set(toInt(payload.get("manual_pwm")));
+    public ControlState applyLocalControl(ControlCommand command) {
+        return controlState.updateAndGet(s -> s.apply(command));
+    }
+
+    public ControlState getControlState() {
+        return controlState.get();
+    }
+
+    /**
+     * 재시작 직후 저널의 마지막 제어 상태를 되살립니다. 그 사이 이미 제어 명령이 들어왔다면 무시합니다.
+     */
+    public void restoreControlState(ControlState state) {
+        controlState.compareAndSet(ControlState.INITIAL, state);
+    }
+
+    /**
+     * 재시작 직후 저널의 마지막 프레임을 되살립니다. 브리지에서 이미 프레임을 받았다면 무시합니다.
+     * (frame.age 게이지는 복원된 프레임의 수신 시각 기준이라 오래된 값임이 그대로 드러남)
+     */
+    public void restoreLastFrame(Map<String, Object> frame, long frameMillis) {
+        if (lastFrameAt.compareAndSet(0, frameMillis)) {
+            lastTelemetry.set(Map.copyOf(frame));
+        }
+    }
+
+    public void addFrameListener(FrameListener listener) {
+        frameListeners.add(listener);
+    }
+
+    public void removeFrameListener(FrameListener listener) {
+        frameListeners.remove(listener);
+    }
+
+    // 브리지 텍스트 프레임 1건 처리: 파싱 → 최신 텔레메트리 교체 → 수신/생성 시각 기록
+    void handleFrame(String msg) {
+        long receivedAt = System.currentTimeMillis();
+        try {
+            Map<String, Object> parsed = mapper.readValue(msg, new TypeReference<Map<String, Object>>(){});
+            if (parsed != null) {
+                long origin = originMillis(parsed);
+                lastTelemetry.set(parsed);
+                lastFrameOrigin.set(origin);
+                lastFrameAt.set(receivedAt);
+                latency.bridgeToServer(origin, receivedAt);
+                for (FrameListener l : frameListeners) {
+                    try { l.onFrame(parsed, origin, receivedAt); } catch (Exception e) { log.debug("[bridge] frame listener fail: {}", e.toString()); }
+                }
+            }
+        } catch (Exception e) {
+            parseFailures.increment();
+            sampled.warn("parse-fail", "[bridge] parse fail: {} | payload={}", e.toString(), abbreviate(msg));
+        }
+    }
+
+    private static String abbreviate(String s) {
+        return s == null || s.length() <= 200 ? s : s.substring(0, 200) + "...";
+    }
+
+    // 프레임의 ts(또는 timestamp) 필드: epoch 초/밀리초 숫자 또는 ISO-8601 문자열
+    private static long originMillis(Map<String, Object> frame) {
+        Object v = frame.containsKey("ts") ? frame.get("ts") : frame.get("timestamp");
+        double d;
+        if (v instanceof Number n) {
+            d = n.doubleValue();
+        } else if (v instanceof String s && !s.isBlank()) {
+            try { return java.time.Instant.parse(s).toEpochMilli(); } catch (Exception ignore) {}
+            try { d = Double.parseDouble(s); } catch (NumberFormatException e) { return 0; }
+        } else {
+            return 0;
+        }
+        return d < 1e12 ? (long) (d * 1000) : (long) d; // 1e12 미만이면 초 단위로 간주
     }
 
     private class Listener implements WebSocket.Listener {
@@ -182,25 +332,20 @@ public class FanBridgeService {
             if (last) {
                 String msg = buf.toString();
                 buf.setLength(0);
-                try {
-                    Map<String, Object> parsed = mapper.readValue(msg, new TypeReference<Map<String, Object>>(){});
-                    if (parsed != null) { lastTelemetry.set(parsed); }
-                } catch (Exception e) {
-                    log.warn("[bridge] parse fail: {} | payload={}", e.toString(), msg);
-                }
+                handleFrame(msg);
             }
             webSocket.request(1);
             return null;
         }
         @Override public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
             socketRef.compareAndSet(webSocket, null);
-            scheduler.schedule(FanBridgeService.this::ensureConnected, retryMillis, TimeUnit.MILLISECONDS);
+            scheduleReconnect(retryMillis);
             return null;
         }
         @Override public void onError(WebSocket webSocket, Throwable error) {
             log.warn("[bridge] ws error: {}", Objects.toString(error));
             socketRef.compareAndSet(webSocket, null);
-            scheduler.schedule(FanBridgeService.this::ensureConnected, retryMillis, TimeUnit.MILLISECONDS);
+            scheduleReconnect(retryMillis);
         }
         @Override public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) { webSocket.request(1); return null; }
         @Override public CompletionStage<?> onPing(WebSocket webSocket, ByteBuffer message) { webSocket.request(1); return null; }
@@ -1,52 +1,125 @@
 package com.example.demo.service;
 
+import com.influxdb.Cancellable;
 import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.InfluxDBClientFactory;
+import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
 import com.influxdb.query.FluxRecord;
-import com.influxdb.query.FluxTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
+/**
+ * Influx 측정값 조회 (최근 값 / 기간 이력 / 내보내기)
+ * - 모든 조회는 콜백 방식 쿼리 API 로 레코드를 도착하는 대로 처리하고, 취소할 수 있습니다.
+ * - 연결/읽기 타임아웃을 명시하고, 조회 전체 시간도 제한합니다. (최근 값: 두 값의 합, 이력/내보내기: exportTimeoutMillis)
+ * - 연속 실패 시 회로 차단기가 열려 openMillis 동안은 조회 없이 빈 맵을 돌려줍니다.
+ *   (텔레메트리 푸시 주기가 Influx 장애에 묶이지 않게)
+ * - 최근 값(live)과 이력/내보내기(range)는 HTTP 클라이언트(연결/디스패처)와 회로 차단기를 따로 씁니다.
+ *   긴 내보내기가 몰리거나 타임아웃이 나도 대시보드의 최근 값 조회는 줄을 서거나 차단되지 않습니다.
+ *   range 는 동시에 range.maxConcurrent 개까지만 실행하고, 넘치면 바로 실패합니다.
+ * - 메트릭: fan.influx.query{outcome}, fan.influx.breaker.state{pool}(0 closed / 1 half-open / 2 open), fan.influx.breaker.rejected{pool}
+ */
 @Service
 public class InfluxService implements DisposableBean {
-    private final InfluxDBClient client;
+    private static final Set<String> MEASUREMENTS = Set.of("cpu_temperature", "gpu_temperature", "model_result", "fan_status");
+    private static final int MAX_HISTORY_POINTS = 2000;
+
     private final String org;
     private final String bucket;
     private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Pool live;
+    private final Pool range;
+    private final long callTimeoutMillis;
+    private final long exportTimeoutMillis;
 
     public InfluxService(
             @Value("${influx.url:http://localhost:8086}") String url,
             @Value("${influx.token:${INFLUX_TOKEN:}}") String token,
             @Value("${influx.org:HANBAT}") String org,
-            @Value("${influx.bucket:TEMPER}") String bucket
+            @Value("${influx.bucket:TEMPER}") String bucket,
+            @Value("${influx.connectTimeoutMillis:1000}") long connectTimeoutMillis,
+            @Value("${influx.readTimeoutMillis:2000}") long readTimeoutMillis,
+            @Value("${influx.breaker.failureThreshold:3}") int failureThreshold,
+            @Value("${influx.breaker.openMillis:30000}") long openMillis,
+            @Value("${influx.exportTimeoutMillis:60000}") long exportTimeoutMillis,
+            @Value("${influx.range.maxConcurrent:2}") int rangeMaxConcurrent,
+            MeterRegistry meterRegistry
     ) {
+        this.meterRegistry = meterRegistry;
+        this.callTimeoutMillis = connectTimeoutMillis + readTimeoutMillis;
+        this.exportTimeoutMillis = exportTimeoutMillis;
         this.org = org;
         this.bucket = bucket;
         boolean ok = token != null && !token.isBlank() && url != null && !url.isBlank();
-        InfluxDBClient c = null;
+        InfluxDBClient liveClient = null;
+        InfluxDBClient rangeClient = null;
         if (ok) {
-            try {
-                c = InfluxDBClientFactory.create(url, token.toCharArray(), org, bucket);
-            } catch (Throwable t) {
-                // Influx 접근 실패 시 안전하게 비활성화 (c는 이미 null)
-            }
+            liveClient = create(url, token, org, bucket, new OkHttpClient.Builder()
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                    .readTimeout(Duration.ofMillis(readTimeoutMillis))
+                    .writeTimeout(Duration.ofMillis(readTimeoutMillis)));
+            // range 전용 디스패처: 동시 요청 수를 live 와 따로 제한 (OkHttp 기본은 호스트당 5개를 모든 조회가 나눠 씀)
+            int permits = Math.max(1, rangeMaxConcurrent);
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(permits);
+            dispatcher.setMaxRequestsPerHost(permits);
+            rangeClient = create(url, token, org, bucket, new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                    .readTimeout(Duration.ofMillis(readTimeoutMillis))
+                    .writeTimeout(Duration.ofMillis(readTimeoutMillis)));
+        }
+        this.live = new Pool("live", liveClient, new CircuitBreaker(failureThreshold, openMillis), null, meterRegistry);
+        this.range = new Pool("range", rangeClient, new CircuitBreaker(failureThreshold, openMillis),
+                new Semaphore(Math.max(1, rangeMaxConcurrent)), meterRegistry);
+        this.enabled = liveClient != null && rangeClient != null;
+    }
+
+    // Influx 접근 실패 시 안전하게 비활성화 (null)
+    private static InfluxDBClient create(String url, String token, String org, String bucket, OkHttpClient.Builder http) {
+        try {
+            return InfluxDBClientFactory.create(InfluxDBClientOptions.builder()
+                    .url(url)
+                    .authenticateToken(token.toCharArray())
+                    .org(org)
+                    .bucket(bucket)
+                    .okHttpClient(http)
+                    .build());
+        } catch (Throwable t) {
+            return null;
         }
-        this.client = c;
-        this.enabled = c != null;
     }
 
     /**
      * 최근 측정의 마지막 값들을 키-값으로 반환합니다.
-     * Influx가 비활성화되어 있으면 빈 맵을 반환합니다.
+     * Influx가 비활성화되어 있거나 회로 차단기가 열려 있으면 빈 맵을 반환합니다.
      */
     public Map<String,Object> latestTemps() {
-        if (!enabled || client == null) return Map.of();
         String flux =
             "from(bucket: \"" + bucket + "\")\n" +
             "  |> range(start: -7d)\n" +
@@ -59,32 +132,211 @@ public class InfluxService implements DisposableBean {
             "  |> group(columns: [\"_measurement\"])\n" +
             "  |> sort(columns: [\"_time\"], desc: true)\n" +
             "  |> limit(n: 1)";
+        Map<String,Object> res = new HashMap<>();
+        boolean ok = stream(live, "latest", flux, callTimeoutMillis, r -> {
+            String measurement = r.getMeasurement();
+            Object value = r.getValue();
+            if (measurement == null) return true;
+            switch (measurement) {
+                case "cpu_temperature" -> res.put("cpuTemp", value);
+                case "gpu_temperature" -> res.put("gpuTemp", value);
+                case "model_result" -> res.put("model_result", value);
+                case "fan_status" -> res.put("pwm_value", value);
+                default -> res.put(measurement, value);
+            }
+            return true;
+        });
+        // 콜백 스레드에서 채운 맵: stream 이 완료를 기다린 뒤라 여기서 읽어도 안전
+        return ok ? res : Map.of();
+    }
+
+    /** 기간 조회 결과: 같은 인덱스의 시각(epoch ms)과 값 */
+    public record Series(String measurement, long[] times, double[] values) {}
+
+    /** 레코드마다 시각(epoch ms)과 값만 넘겨받는 콜백. false 를 돌려주면 조회를 취소합니다. */
+    @FunctionalInterface
+    public interface PointSink {
+        boolean accept(long timeMillis, double value);
+    }
+
+    /**
+     * 최근 range 동안의 값을 최대 maxPoints 개 구간 평균으로 조회합니다.
+     * 결과는 maxPoints 크기로 미리 잡은 배열에 도착 순서대로 채우므로 기간이 길어도 메모리는 일정합니다.
+     * @return Influx 를 쓸 수 없거나 조회에 실패하면 empty
+     * @throws IllegalArgumentException 모르는 measurement
+     */
+    public Optional<Series> history(String measurement, Duration range, int maxPoints) {
+        int capacity = Math.max(1, Math.min(maxPoints, MAX_HISTORY_POINTS));
+        long everySeconds = Math.max(1, range.toSeconds() / capacity);
+        String flux = select(measurement, "-" + range.toSeconds() + "s", null) +
+                "  |> aggregateWindow(every: " + everySeconds + "s, fn: mean, createEmpty: false)\n" +
+                "  |> keep(columns: [\"_time\", \"_value\"])";
+        long[] times = new long[capacity];
+        double[] values = new double[capacity];
+        int[] size = {0};
+        boolean ok = stream(range, "history", flux, exportTimeoutMillis, r -> {
+            long t = timeOf(r);
+            if (t < 0 || !(r.getValue() instanceof Number n)) return true;
+            times[size[0]] = t;
+            values[size[0]] = n.doubleValue();
+            return ++size[0] < capacity; // 구간 경계로 한 점이 더 올 수 있으므로 가득 차면 취소
+        });
+        if (!ok) return Optional.empty();
+        return Optional.of(new Series(measurement, Arrays.copyOf(times, size[0]), Arrays.copyOf(values, size[0])));
+    }
+
+    /**
+     * [from, to) 구간의 원본 값을 도착하는 대로 sink 로 넘깁니다. (내보내기용, 결과를 모아 두지 않음)
+     * @return 넘긴 점 개수, Influx 를 쓸 수 없거나 실패하면 -1 (sink 가 취소한 경우는 그때까지의 개수)
+     * @throws IllegalArgumentException 모르는 measurement
+     */
+    public long export(String measurement, Instant from, Instant to, PointSink sink) {
+        String flux = select(measurement, from.toString(), to.toString()) +
+                "  |> keep(columns: [\"_time\", \"_value\"])";
+        long[] count = {0};
+        boolean ok = stream(range, "export", flux, exportTimeoutMillis, r -> {
+            long t = timeOf(r);
+            if (t < 0 || !(r.getValue() instanceof Number n)) return true;
+            count[0]++;
+            return sink.accept(t, n.doubleValue());
+        });
+        return ok ? count[0] : -1;
+    }
+
+    /**
+     * 이력/내보내기를 지금 시작할 수 있는지 (Influx 사용 가능, range 차단기가 호출을 받음, 동시 실행 여유 있음)
+     * 응답을 커밋하기 전 사전 확인용이라 동시에 여러 요청이 통과할 수 있고, 그때는 export 가 -1 을 돌려줍니다.
+     */
+    public boolean rangeAvailable() {
+        return enabled && range.breaker.isCallPermitted() && range.permits.availablePermits() > 0;
+    }
+
+    public static boolean isKnownMeasurement(String measurement) {
+        return MEASUREMENTS.contains(measurement);
+    }
+
+    // measurement 는 Flux 문자열에 그대로 들어가므로 알려진 이름만 허용
+    private String select(String measurement, String start, String stop) {
+        if (!isKnownMeasurement(measurement)) throw new IllegalArgumentException("unknown measurement: " + measurement);
+        return "from(bucket: \"" + bucket + "\")\n" +
+               "  |> range(start: " + start + (stop == null ? "" : ", stop: " + stop) + ")\n" +
+               "  |> filter(fn: (r) => r._measurement == \"" + measurement + "\")\n" +
+               "  |> filter(fn: (r) => r._field == \"value\" or r._field == \"pwm_duty_cycle\")\n";
+    }
+
+    private static long timeOf(FluxRecord r) {
+        Instant t = r.getTime();
+        return t == null ? -1 : t.toEpochMilli();
+    }
+
+    /**
+     * 콜백 방식 쿼리 API 로 레코드를 하나씩 onRecord 에 넘깁니다. (List&lt;FluxTable&gt; 로 모으지 않음)
+     * onRecord 가 false 를 돌려주거나 timeoutMillis 가 지나거나 호출 스레드가 인터럽트되면 조회를 취소합니다.
+     * onRecord 는 HTTP 클라이언트 스레드에서 순서대로 호출됩니다.
+     * @return 끝까지 (또는 onRecord 가 멈출 때까지) 읽었으면 true
+     */
+    private boolean stream(Pool pool, String query, String flux, long timeoutMillis, Predicate<FluxRecord> onRecord) {
+        if (!enabled) return false;
+        if (pool.permits != null && !pool.permits.tryAcquire()) {
+            pool.rejected.increment();
+            return false;
+        }
         try {
-            QueryApi q = client.getQueryApi();
-            List<FluxTable> tables = q.query(flux, org);
-            Map<String,Object> res = new HashMap<>();
-            for (FluxTable t : tables) {
-                for (FluxRecord r : t.getRecords()) {
-                    String measurement = r.getMeasurement();
-                    Object value = r.getValue();
-                    if (measurement == null) continue;
-                    switch (measurement) {
-                        case "cpu_temperature" -> res.put("cpuTemp", value);
-                        case "gpu_temperature" -> res.put("gpuTemp", value);
-                        case "model_result" -> res.put("model_result", value);
-                        case "fan_status" -> res.put("pwm_value", value);
-                        default -> res.put(measurement, value);
-                    }
-                }
+            if (!pool.breaker.tryAcquire()) {
+                pool.rejected.increment();
+                return false;
             }
-            return res;
+            return query(pool, query, flux, timeoutMillis, onRecord);
+        } finally {
+            if (pool.permits != null) pool.permits.release();
+        }
+    }
+
+    private boolean query(Pool pool, String query, String flux, long timeoutMillis, Predicate<FluxRecord> onRecord) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicReference<Cancellable> handle = new AtomicReference<>();
+        try {
+            QueryApi q = pool.client.getQueryApi();
+            q.query(flux, org, (cancellable, record) -> {
+                handle.set(cancellable);
+                if (done.isDone()) {
+                    cancellable.cancel();
+                } else if (!onRecord.test(record)) {
+                    cancellable.cancel();
+                    done.complete(null);
+                }
+            }, done::completeExceptionally, () -> done.complete(null));
+            done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            pool.breaker.onSuccess();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "cancelled";
+            pool.breaker.release(); // 호출자 취소는 성공도 장애도 아님: 상태는 그대로, HALF_OPEN 시험 슬롯만 반납
+            return false;
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            pool.breaker.onFailure();
+            return false;
         } catch (Throwable t) {
-            return Map.of();
+            outcome = "error";
+            pool.breaker.onFailure();
+            return false;
+        } finally {
+            if (!done.isDone()) {
+                done.cancel(false);
+                Cancellable c = handle.get();
+                if (c != null) c.cancel();
+            }
+            sample.stop(meterRegistry.timer("fan.influx.query", "query", query, "outcome", outcome));
         }
     }
 
+    /**
+     * 기본 bucket/org 로 쓰는 비동기 배치 WriteApi 를 만듭니다. 받은 쪽이 close 해야 합니다.
+     * @return Influx 가 비활성화되어 있으면 empty
+     */
+    public Optional<WriteApi> openWriteApi(WriteOptions options) {
+        return enabled ? Optional.of(live.client.makeWriteApi(options)) : Optional.empty();
+    }
+
+    /** 최근 값(live) 조회의 회로 차단기 상태 */
+    public CircuitBreaker.State breakerState() {
+        return live.breaker.state();
+    }
+
+    /** 이력/내보내기(range) 조회의 회로 차단기 상태 */
+    public CircuitBreaker.State rangeBreakerState() {
+        return range.breaker.state();
+    }
+
     @Override
     public void destroy() {
-        if (client != null) client.close();
+        if (live.client != null) live.client.close();
+        if (range.client != null) range.client.close();
+    }
+
+    /** 조회 경로 하나의 HTTP 클라이언트 + 회로 차단기 (+ 동시 실행 제한, null 이면 제한 없음) */
+    private static final class Pool {
+        final InfluxDBClient client;
+        final CircuitBreaker breaker;
+        final Semaphore permits;
+        final Counter rejected;
+
+        Pool(String name, InfluxDBClient client, CircuitBreaker breaker, Semaphore permits, MeterRegistry registry) {
+            this.client = client;
+            this.breaker = breaker;
+            this.permits = permits;
+            this.rejected = registry.counter("fan.influx.breaker.rejected", "pool", name);
+            Gauge.builder("fan.influx.breaker.state", breaker, b -> switch (b.state()) {
+                        case CLOSED -> 0;
+                        case HALF_OPEN -> 1;
+                        case OPEN -> 2;
+                    })
+                    .tag("pool", name)
+                    .register(registry);
+        }
     }
 }
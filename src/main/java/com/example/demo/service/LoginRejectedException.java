@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+/**
+ * 로그인 시도 거절 예외
+ * - 실패 횟수 제한에 걸렸거나 비밀번호 검증 작업이 포화 상태일 때 발생합니다.
+ * - 비밀번호 불일치(빈 Optional)와 구분해 사용자에게 재시도 안내를 보여주기 위해 사용합니다.
+ */
+public class LoginRejectedException extends RuntimeException {
+    public LoginRejectedException(String message) {
+        super(message);
+    }
+}
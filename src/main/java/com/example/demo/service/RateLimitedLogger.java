@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메시지마다 반복될 수 있는 로그(프레임 파싱 실패, 브리지 전송 실패, 재연결 등)를 키별로 간격당 한 번만 남깁니다.
+ * 건너뛴 횟수는 다음에 남기는 줄 끝에 "(+N suppressed)" 로 붙습니다. 키는 호출 지점별 고정 문자열을 씁니다.
+ */
+public final class RateLimitedLogger {
+
+    private final Logger log;
+    private final long intervalMillis;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger log, long intervalMillis) {
+        this.log = log;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public void warn(String key, String format, Object... args) {
+        if (!log.isWarnEnabled()) return;
+        long suppressed = acquire(key);
+        if (suppressed == 0) log.warn(format, args);
+        else if (suppressed > 0) log.warn(format + " (+{} suppressed)", append(args, suppressed));
+    }
+
+    public void info(String key, String format, Object... args) {
+        if (!log.isInfoEnabled()) return;
+        long suppressed = acquire(key);
+        if (suppressed == 0) log.info(format, args);
+        else if (suppressed > 0) log.info(format + " (+{} suppressed)", append(args, suppressed));
+    }
+
+    // 이번 간격에 처음이면 그동안 건너뛴 수(0 이상), 아니면 -1
+    private long acquire(String key) {
+        Window w = windows.computeIfAbsent(key, k -> new Window());
+        long now = System.currentTimeMillis();
+        long last = w.loggedAt.get();
+        if (now - last >= intervalMillis && w.loggedAt.compareAndSet(last, now)) {
+            return w.suppressed.getAndSet(0);
+        }
+        w.suppressed.incrementAndGet();
+        return -1;
+    }
+
+    private static Object[] append(Object[] args, long suppressed) {
+        Object[] out = new Object[args.length + 1];
+        System.arraycopy(args, 0, out, 0, args.length);
+        out[args.length] = suppressed;
+        return out;
+    }
+
+    private static final class Window {
+        private final AtomicLong loggedAt = new AtomicLong(Long.MIN_VALUE / 2);
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 구독 현황 추적
+ * - 익명 세션까지 포함해 destination 별 구독 수를 셉니다. (SimpUserRegistry 는 Principal 이 있는 세션만 추적)
+ */
+@Component
+public class StompSubscriptionTracker {
+
+    public static final String TELEMETRY_TOPIC = "/topic/telemetry";
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> bySession = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    public StompSubscriptionTracker(MeterRegistry meterRegistry) {
+        // 등급별 destination 합계 (등급별 수는 fan.telemetry.tier.subscribers)
+        Gauge.builder("fan.telemetry.subscribers", this, StompSubscriptionTracker::telemetrySubscribers)
+                .tag("transport", "stomp")
+                .register(meterRegistry);
+    }
+
+    public int count(String destination) {
+        AtomicInteger c = counts.get(destination);
+        return c == null ? 0 : c.get();
+    }
+
+    private int telemetrySubscribers() {
+        int n = 0;
+        for (TelemetryTierService.Tier t : TelemetryTierService.Tier.values()) n += count(t.destination());
+        return n;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if (h.getSessionId() == null || h.getSubscriptionId() == null || h.getDestination() == null) return;
+        String prev = bySession.computeIfAbsent(h.getSessionId(), k -> new ConcurrentHashMap<>())
+                .put(h.getSubscriptionId(), h.getDestination());
+        if (prev != null) decrement(prev);
+        counts.computeIfAbsent(h.getDestination(), k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subs = h.getSessionId() == null ? null : bySession.get(h.getSessionId());
+        if (subs == null || h.getSubscriptionId() == null) return;
+        String dest = subs.remove(h.getSubscriptionId());
+        if (dest != null) decrement(dest);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subs = bySession.remove(event.getSessionId());
+        if (subs != null) subs.values().forEach(this::decrement);
+    }
+
+    private void decrement(String destination) {
+        AtomicInteger c = counts.get(destination);
+        if (c != null) c.decrementAndGet();
+    }
+}
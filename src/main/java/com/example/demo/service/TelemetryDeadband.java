@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 스냅샷 발행 데드밴드
+ * - cpuTemp / gpuTemp / actualPwm 만 바뀌었고 마지막 발행 값에서 각 데드밴드 미만으로 움직였으면 새 버전을 만들지 않습니다.
+ * - 비교는 UI 스냅샷의 정수값이 아니라 브리지 프레임의 원래 값으로 합니다. (61.9 ↔ 62.0 같은 반올림 경계 흔들림 무시)
+ * - 모드/설정 PWM/임계값 등 다른 항목이 바뀌면 항상 발행하고, maxSilenceMillis 동안 발행이 없었으면 작은 변화도 발행합니다.
+ */
+@Component
+public class TelemetryDeadband {
+
+    private static final String[] METRICS = {"cpuTemp", "gpuTemp", "actualPwm"};
+    private static final String[] FRAME_KEYS = {"cpuTemp", "gpuTemp", "pwm_value"};
+
+    /** 데드밴드 없음 (내용이 바뀌면 항상 발행) */
+    public static final TelemetryDeadband NONE = new TelemetryDeadband(0, 0, 0, 0);
+
+    private final double[] bands;
+    private final long maxSilenceMillis;
+
+    public TelemetryDeadband(@Value("${fan.telemetry.deadband.cpuTemp:1}") double cpuTemp,
+                             @Value("${fan.telemetry.deadband.gpuTemp:1}") double gpuTemp,
+                             @Value("${fan.telemetry.deadband.actualPwm:2}") double actualPwm,
+                             @Value("${fan.telemetry.maxSilenceMillis:10000}") long maxSilenceMillis) {
+        this.bands = new double[]{cpuTemp, gpuTemp, actualPwm};
+        this.maxSilenceMillis = maxSilenceMillis;
+    }
+
+    /** 데드밴드 비교용 원래 값 (프레임에 없으면 UI 스냅샷 값) */
+    double[] sample(Map<String, Object> ui, Map<String, Object> frame) {
+        double[] raw = new double[METRICS.length];
+        for (int m = 0; m < METRICS.length; m++) {
+            Object v = frame.get(FRAME_KEYS[m]);
+            if (!(v instanceof Number)) v = ui.get(METRICS[m]);
+            raw[m] = v instanceof Number n ? n.doubleValue() : Double.NaN;
+        }
+        return raw;
+    }
+
+    /**
+     * @param prev, next     비교 대상 스냅샷 내용 (매 틱 바뀌는 키는 제외된 상태)
+     * @param silenceMillis  마지막 발행 이후 경과 시간
+     * @return true 면 이번 변화는 발행하지 않음
+     */
+    boolean suppress(Map<String, Object> prev, Map<String, Object> next, double[] prevRaw, double[] nextRaw, long silenceMillis) {
+        if (silenceMillis >= maxSilenceMillis || prevRaw == null) return false;
+        if (!prev.keySet().equals(next.keySet())) return false;
+        for (Map.Entry<String, Object> e : next.entrySet()) {
+            if (Objects.equals(prev.get(e.getKey()), e.getValue())) continue;
+            int m = indexOf(e.getKey());
+            if (m < 0) return false;
+            double delta = Math.abs(nextRaw[m] - prevRaw[m]);
+            if (Double.isNaN(delta) || delta >= bands[m]) return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(String key) {
+        for (int m = 0; m < METRICS.length; m++) if (METRICS[m].equals(key)) return m;
+        return -1;
+    }
+}
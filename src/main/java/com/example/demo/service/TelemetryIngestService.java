@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.Point;
+import com.influxdb.client.write.events.BackpressureEvent;
+import com.influxdb.client.write.events.WriteErrorEvent;
+import com.influxdb.client.write.events.WriteSuccessEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.BackpressureOverflowStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 브리지 프레임을 Influx 에 원본 해상도로 저장 (influx.ingest.enabled=true 일 때만)
+ * - FanBridgeService 의 프레임 리스너로 받아, 클라이언트 비동기 WriteApi 에 넘기기만 합니다. (수신 스레드에서 네트워크 I/O 없음)
+ * - batchSize 개가 모이거나 flushIntervalMillis 가 지나면 한 번에 전송합니다.
+ * - 버퍼는 bufferLimit 점으로 제한하고, 넘치면 오래된 점부터 버립니다.
+ *   클라이언트가 버린 점 수는 알려주지 않으므로 버퍼가 넘친 횟수(backpressure 이벤트)만 셉니다. (fan.influx.ingest.backpressure)
+ * - 종료 시 남은 버퍼를 flush 한 뒤 닫습니다.
+ * 읽기 쪽(InfluxService)과 같은 measurement/field 로 쓰고 source=bridge 태그를 붙입니다.
+ */
+@Service
+public class TelemetryIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryIngestService.class);
+    private static final RateLimitedLogger sampled = new RateLimitedLogger(log, 30_000);
+
+    private final FanBridgeService bridge;
+    private final InfluxService influx;
+    private final boolean enabled;
+    private final WriteOptions options;
+    private final FanBridgeService.FrameListener listener = this::onFrame;
+
+    private final Counter queued;
+    private final Counter backpressure;
+    private final Counter batchesOk;
+    private final Counter batchesFailed;
+
+    private volatile WriteApi writeApi;
+
+    public TelemetryIngestService(FanBridgeService bridge, InfluxService influx,
+                                  @Value("${influx.ingest.enabled:false}") boolean enabled,
+                                  @Value("${influx.ingest.batchSize:500}") int batchSize,
+                                  @Value("${influx.ingest.flushIntervalMillis:1000}") int flushIntervalMillis,
+                                  @Value("${influx.ingest.bufferLimit:10000}") int bufferLimit,
+                                  MeterRegistry meterRegistry) {
+        this.bridge = bridge;
+        this.influx = influx;
+        this.enabled = enabled;
+        this.options = WriteOptions.builder()
+                .batchSize(batchSize)
+                .flushInterval(flushIntervalMillis)
+                .bufferLimit(bufferLimit)
+                .backpressureStrategy(BackpressureOverflowStrategy.DROP_OLDEST)
+                .build();
+        this.queued = meterRegistry.counter("fan.influx.ingest.points", "outcome", "queued");
+        this.backpressure = meterRegistry.counter("fan.influx.ingest.backpressure");
+        this.batchesOk = meterRegistry.counter("fan.influx.ingest.batches", "outcome", "success");
+        this.batchesFailed = meterRegistry.counter("fan.influx.ingest.batches", "outcome", "error");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        influx.openWriteApi(options).ifPresentOrElse(api -> {
+            api.listenEvents(WriteSuccessEvent.class, e -> batchesOk.increment());
+            api.listenEvents(WriteErrorEvent.class, e -> {
+                batchesFailed.increment();
+                sampled.warn("write-fail", "[ingest] batch write failed: {}", e.getThrowable().toString());
+            });
+            api.listenEvents(BackpressureEvent.class, e -> {
+                backpressure.increment();
+                sampled.warn("backpressure", "[ingest] buffer full, dropping oldest points");
+            });
+            writeApi = api;
+            bridge.addFrameListener(listener);
+            log.info("[ingest] bridge frames -> influx (batch {}, every {} ms)", options.getBatchSize(), options.getFlushInterval());
+        }, () -> log.info("[ingest] influx disabled, bridge frames are not persisted"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        bridge.removeFrameListener(listener);
+        WriteApi api = writeApi;
+        writeApi = null;
+        if (api == null) return;
+        try {
+            api.flush();
+        } finally {
+            api.close(); // 남은 배치 전송을 기다린 뒤 닫음
+        }
+    }
+
+    private void onFrame(Map<String, Object> frame, long originMillis, long receivedMillis) {
+        WriteApi api = writeApi;
+        if (api == null) return;
+        List<Point> points = toPoints(frame, originMillis > 0 ? originMillis : receivedMillis);
+        if (points.isEmpty()) return;
+        api.writePoints(points);
+        queued.increment(points.size());
+    }
+
+    /**
+     * 프레임 → Influx 점. 필드 타입은 measurement 마다 고정합니다.
+     * (JSON 의 45 / 45.5 처럼 프레임마다 타입이 달라도 같은 타입으로 써야 Influx 가 배치 전체를 거절하지 않음)
+     * 온도/PWM 은 double, model_result 는 판정 값이라 정수
+     */
+    static List<Point> toPoints(Map<String, Object> frame, long time) {
+        List<Point> points = new ArrayList<>(4);
+        addDouble(points, "cpu_temperature", "value", frame.get("cpuTemp"), time);
+        addDouble(points, "gpu_temperature", "value", frame.get("gpuTemp"), time);
+        addLong(points, "model_result", "value", frame.get("model_result"), time);
+        addDouble(points, "fan_status", "pwm_duty_cycle", frame.get("pwm_value"), time);
+        return points;
+    }
+
+    private static void addDouble(List<Point> points, String measurement, String field, Object value, long time) {
+        if (!(value instanceof Number n) || !Double.isFinite(n.doubleValue())) return;
+        points.add(point(measurement, time).addField(field, n.doubleValue()));
+    }
+
+    private static void addLong(List<Point> points, String measurement, String field, Object value, long time) {
+        if (!(value instanceof Number n) || !Double.isFinite(n.doubleValue())) return;
+        points.add(point(measurement, time).addField(field, Math.round(n.doubleValue())));
+    }
+
+    private static Point point(String measurement, long time) {
+        return Point.measurement(measurement).addTag("source", "bridge").time(time, WritePrecision.MS);
+    }
+}
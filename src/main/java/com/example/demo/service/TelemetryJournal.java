@@ -0,0 +1,369 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 텔레메트리 저널 (메모리 매핑 세그먼트, 추가 전용)
+ * - 브리지 프레임(샘플)과 제어 상태 변경을 32바이트 고정 레코드로 기록합니다. 네트워크 I/O 없음.
+ * - 세그먼트가 가득 차면 새 파일로 넘기고, 새 세그먼트 첫 레코드로 현재 제어 상태를 적어 둡니다.
+ *   (재시작 시 마지막 세그먼트만 보면 상태를 복원할 수 있게)
+ * - retentionHours 보다 오래된 세그먼트는 넘길 때 지웁니다.
+ * - 시작 시 세그먼트마다 끝 위치를 이진 탐색으로 찾고, 마지막 샘플/제어 상태를 FanBridgeService 에 복원합니다.
+ *   브리지가 다시 연결되기 전에도 대시보드가 0 대신 마지막 값을 보여 줍니다.
+ * - Influx 를 쓸 수 없을 때 이력 조회의 대체 소스로도 씁니다. (history)
+ */
+@Service
+public class TelemetryJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryJournal.class);
+    private static final RateLimitedLogger sampled = new RateLimitedLogger(log, 30_000);
+
+    // 레코드 레이아웃 (32 bytes). type 을 마지막에 써서, type 이 0 이 아닌 레코드는 모두 완전히 기록된 것으로 봅니다.
+    static final int RECORD_BYTES = 32;
+    private static final byte TYPE_SAMPLE = 1;
+    private static final byte TYPE_CONTROL = 2;
+    private static final int OFF_TYPE = 0;
+    private static final int OFF_FLAG = 1;      // control: manual
+    private static final int OFF_PWM = 2;       // sample: actual pwm / control: manual pwm
+    private static final int OFF_TIME = 4;
+    private static final int OFF_CPU = 12;      // sample: float cpu / control: int cpu threshold
+    private static final int OFF_GPU = 16;      // sample: float gpu / control: int gpu threshold
+    private static final int OFF_MODEL = 20;    // sample: model_result (-1 없음)
+    private static final int OFF_SET_PWM = 24;  // sample: 설정 pwm (-1 없음)
+    private static final int OFF_VERSION = 24;  // control: 상태 버전
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".seg";
+
+    private final FanBridgeService bridge;
+    private final boolean enabled;
+    private final Path dir;
+    private final int recordsPerSegment;
+    private final long retentionMillis;
+    private final FanBridgeService.FrameListener listener = this::onFrame;
+
+    // 오래된 것부터 정렬, 마지막이 쓰기 중인 세그먼트
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Counter appended;
+    private volatile boolean closed;
+
+    public TelemetryJournal(FanBridgeService bridge,
+                            @Value("${fan.journal.enabled:false}") boolean enabled,
+                            @Value("${fan.journal.dir:${java.io.tmpdir}/fan-journal}") String dir,
+                            @Value("${fan.journal.segmentBytes:4194304}") int segmentBytes,
+                            @Value("${fan.journal.retentionHours:48}") long retentionHours,
+                            MeterRegistry meterRegistry) {
+        this.bridge = bridge;
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.recordsPerSegment = Math.max(2, segmentBytes / RECORD_BYTES);
+        this.retentionMillis = Duration.ofHours(retentionHours).toMillis();
+        this.appended = meterRegistry.counter("fan.journal.records");
+        Gauge.builder("fan.journal.segments", segments, List::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path p : files.filter(TelemetryJournal::isSegment).sorted().toList()) {
+                    segments.add(Segment.open(p, recordsPerSegment));
+                }
+            }
+            restore();
+            bridge.addFrameListener(listener);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[journal] disabled, cannot open {}: {}", dir, e.toString());
+            closed = true;
+            closeAll();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        bridge.removeFrameListener(listener);
+        synchronized (this) {
+            closed = true;
+            if (!segments.isEmpty()) segments.get(segments.size() - 1).buf.force();
+            closeAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 제어 상태 변경 기록 (ControlService 에서 로컬 상태를 바꾼 직후) */
+    public void appendControl(ControlState state) {
+        if (!enabled) return;
+        append(System.currentTimeMillis(), (buf, at) -> writeControl(buf, at, state));
+    }
+
+    private void onFrame(Map<String, Object> frame, long originMillis, long receivedMillis) {
+        long time = originMillis > 0 ? originMillis : receivedMillis;
+        float cpu = floatOf(frame.get("cpuTemp"));
+        float gpu = floatOf(frame.get("gpuTemp"));
+        short pwm = (short) intOf(frame.get("pwm_value"), 0);
+        short setPwm = (short) intOf(frame.getOrDefault("pwm", frame.get("setPwm")), -1);
+        int model = intOf(frame.get("model_result"), -1);
+        append(time, (buf, at) -> {
+            buf.putShort(at + OFF_PWM, pwm);
+            buf.putLong(at + OFF_TIME, time);
+            buf.putFloat(at + OFF_CPU, cpu);
+            buf.putFloat(at + OFF_GPU, gpu);
+            buf.putInt(at + OFF_MODEL, model);
+            buf.putShort(at + OFF_SET_PWM, setPwm);
+            buf.put(at + OFF_TYPE, TYPE_SAMPLE);
+        });
+    }
+
+    private interface RecordWriter {
+        void write(MappedByteBuffer buf, int offset);
+    }
+
+    // 단일 writer: 브리지 수신 스레드와 제어 요청 스레드가 번갈아 쓰므로 synchronized
+    private synchronized void append(long time, RecordWriter writer) {
+        if (closed) return;
+        try {
+            Segment seg = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (seg == null || seg.isFull()) seg = roll(time);
+            if (seg == null) return;
+            writer.write(seg.buf, seg.size * RECORD_BYTES);
+            seg.size++; // volatile 쓰기: 읽는 쪽은 size 를 먼저 읽어 이 레코드를 본다
+            appended.increment();
+        } catch (Exception e) {
+            sampled.warn("append", "[journal] append failed: {}", e.toString());
+        }
+    }
+
+    // 새 세그먼트를 만들고 현재 제어 상태를 첫 레코드로 적은 뒤, 보존 기간이 지난 세그먼트를 지웁니다.
+    private Segment roll(long time) throws IOException {
+        if (!segments.isEmpty()) segments.get(segments.size() - 1).buf.force();
+        long start = Math.max(time, segments.isEmpty() ? 0 : segments.get(segments.size() - 1).lastTime() + 1);
+        Segment seg = Segment.open(dir.resolve(String.format("%s%019d%s", PREFIX, start, SUFFIX)), recordsPerSegment);
+        segments.add(seg);
+        writeControl(seg.buf, 0, bridge.getControlState());
+        seg.size = 1;
+        purge(time);
+        return seg;
+    }
+
+    private void purge(long now) {
+        // 다음 세그먼트의 시작이 보존 기준보다 오래됐다면 그 앞 세그먼트는 전부 기준보다 오래된 것
+        while (segments.size() > 1 && segments.get(1).startMillis < now - retentionMillis) {
+            Segment old = segments.remove(0);
+            old.close();
+            try {
+                Files.deleteIfExists(old.path);
+            } catch (IOException e) {
+                // 매핑이 남아 있으면 (Windows) 지우지 못할 수 있음: 다음 시작 때 다시 시도
+                log.debug("[journal] delete {} failed: {}", old.path, e.toString());
+            }
+        }
+    }
+
+    private static void writeControl(MappedByteBuffer buf, int at, ControlState s) {
+        buf.put(at + OFF_FLAG, (byte) (s.manual() ? 1 : 0));
+        buf.putShort(at + OFF_PWM, (short) s.manualPwm());
+        buf.putLong(at + OFF_TIME, System.currentTimeMillis());
+        buf.putInt(at + OFF_CPU, s.cpuThreshold());
+        buf.putInt(at + OFF_GPU, s.gpuThreshold());
+        buf.putLong(at + OFF_VERSION, s.version());
+        buf.put(at + OFF_TYPE, TYPE_CONTROL);
+    }
+
+    // 마지막 세그먼트부터 거꾸로 훑어 가장 최근 샘플과 제어 상태를 복원
+    // 제어 상태는 상태 교체(CAS) 뒤에 기록되어 동시 명령끼리는 파일 순서가 버전 순서와 다를 수 있으므로,
+    // 제어 레코드가 있는 마지막 세그먼트 전체에서 버전이 가장 큰 것을 씁니다.
+    // (세그먼트는 넘길 때의 현재 상태로 시작하므로 그보다 앞 세그먼트에 더 큰 버전은 없음)
+    private void restore() {
+        Map<String, Object> frame = null;
+        long frameTime = 0;
+        ControlState control = null;
+        int controlSegment = -1;
+        for (int s = segments.size() - 1; s >= 0 && (frame == null || controlSegment < 0); s--) {
+            Segment seg = segments.get(s);
+            for (int i = seg.size - 1; i >= 0 && (frame == null || controlSegment < 0 || controlSegment == s); i--) {
+                int at = i * RECORD_BYTES;
+                byte type = seg.buf.get(at + OFF_TYPE);
+                if (type == TYPE_SAMPLE && frame == null) {
+                    frame = readFrame(seg.buf, at);
+                    frameTime = seg.buf.getLong(at + OFF_TIME);
+                } else if (type == TYPE_CONTROL && (controlSegment < 0 || controlSegment == s)) {
+                    ControlState c = new ControlState(seg.buf.getLong(at + OFF_VERSION), seg.buf.get(at + OFF_FLAG) == 1,
+                            seg.buf.getShort(at + OFF_PWM), seg.buf.getInt(at + OFF_CPU), seg.buf.getInt(at + OFF_GPU));
+                    if (control == null || c.version() > control.version()) control = c;
+                    controlSegment = s;
+                }
+            }
+        }
+        if (control != null) bridge.restoreControlState(control);
+        if (frame != null) bridge.restoreLastFrame(frame, frameTime);
+        log.info("[journal] {} segment(s) in {}, restored frame={} control={}", segments.size(), dir, frame != null, control);
+    }
+
+    private static Map<String, Object> readFrame(MappedByteBuffer buf, int at) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("cpuTemp", (double) buf.getFloat(at + OFF_CPU));
+        m.put("gpuTemp", (double) buf.getFloat(at + OFF_GPU));
+        m.put("pwm_value", (int) buf.getShort(at + OFF_PWM));
+        int model = buf.getInt(at + OFF_MODEL);
+        if (model >= 0) m.put("model_result", model);
+        short setPwm = buf.getShort(at + OFF_SET_PWM);
+        if (setPwm >= 0) m.put("setPwm", (int) setPwm);
+        return m;
+    }
+
+    /**
+     * 최근 range 동안의 샘플을 maxPoints 개 구간 평균으로 (InfluxService.history 와 같은 모양)
+     * @return 저널이 꺼져 있거나 모르는 measurement 면 empty
+     */
+    public Optional<InfluxService.Series> history(String measurement, Duration range, int maxPoints) {
+        if (!enabled || segments.isEmpty()) return Optional.empty();
+        int field = switch (measurement) {
+            case "cpu_temperature" -> OFF_CPU;
+            case "gpu_temperature" -> OFF_GPU;
+            case "fan_status" -> OFF_PWM;
+            case "model_result" -> OFF_MODEL;
+            default -> -1;
+        };
+        if (field < 0) return Optional.empty();
+        int buckets = Math.max(1, Math.min(maxPoints, 2000));
+        long end = System.currentTimeMillis();
+        long start = end - range.toMillis();
+        long width = Math.max(1, range.toMillis() / buckets);
+        double[] sums = new double[buckets];
+        int[] counts = new int[buckets];
+
+        List<Segment> snapshot = new ArrayList<>(segments);
+        for (int s = 0; s < snapshot.size(); s++) {
+            Segment seg = snapshot.get(s);
+            if (s + 1 < snapshot.size() && snapshot.get(s + 1).startMillis < start) continue;
+            int size = seg.size;
+            for (int i = 0; i < size; i++) {
+                int at = i * RECORD_BYTES;
+                if (seg.buf.get(at + OFF_TYPE) != TYPE_SAMPLE) continue;
+                long t = seg.buf.getLong(at + OFF_TIME);
+                if (t < start || t >= end) continue;
+                double v = switch (field) {
+                    case OFF_CPU, OFF_GPU -> seg.buf.getFloat(at + field);
+                    case OFF_PWM -> seg.buf.getShort(at + field);
+                    default -> seg.buf.getInt(at + field);
+                };
+                if (field == OFF_MODEL && v < 0) continue;
+                int b = (int) Math.min(buckets - 1, (t - start) / width);
+                sums[b] += v;
+                counts[b]++;
+            }
+        }
+        long[] times = new long[buckets];
+        double[] values = new double[buckets];
+        int n = 0;
+        for (int b = 0; b < buckets; b++) {
+            if (counts[b] == 0) continue;
+            times[n] = start + (b + 1) * width; // 구간 끝 시각 (aggregateWindow 와 같음)
+            values[n] = sums[b] / counts[b];
+            n++;
+        }
+        return Optional.of(new InfluxService.Series(measurement, Arrays.copyOf(times, n), Arrays.copyOf(values, n)));
+    }
+
+    private void closeAll() {
+        segments.forEach(Segment::close);
+        segments.clear();
+    }
+
+    private static boolean isSegment(Path p) {
+        String name = p.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static float floatOf(Object o) {
+        if (o instanceof Number n) return n.floatValue();
+        try { return Float.parseFloat(String.valueOf(o)); } catch (Exception e) { return 0f; }
+    }
+
+    private static int intOf(Object o, int fallback) {
+        if (o instanceof Number n) return n.intValue();
+        try { return Integer.parseInt(String.valueOf(o)); } catch (Exception e) { return fallback; }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long startMillis;
+        private final FileChannel channel;
+        private final MappedByteBuffer buf;
+        private final int capacity;
+        private volatile int size;
+
+        private Segment(Path path, long startMillis, FileChannel channel, MappedByteBuffer buf, int capacity) {
+            this.path = path;
+            this.startMillis = startMillis;
+            this.channel = channel;
+            this.buf = buf;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path path, int capacity) throws IOException {
+            String name = path.getFileName().toString();
+            long start = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // 기존 파일은 원래 크기로 매핑 (설정이 바뀌어도 읽을 수 있게), 새 파일은 capacity 만큼 0 으로 채워짐
+            long bytes = Math.max(ch.size(), (long) capacity * RECORD_BYTES);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            Segment seg = new Segment(path, start, ch, buf, (int) (bytes / RECORD_BYTES));
+            seg.size = seg.findEnd();
+            return seg;
+        }
+
+        // 기록된 레코드는 앞에서부터 연속이고 나머지는 0 이므로, type != 0 인 마지막 위치를 이진 탐색
+        private int findEnd() {
+            int lo = 0, hi = capacity;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (buf.get(mid * RECORD_BYTES + OFF_TYPE) != 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        boolean isFull() {
+            return size >= capacity;
+        }
+
+        long lastTime() {
+            int n = size;
+            return n == 0 ? startMillis : buf.getLong((n - 1) * RECORD_BYTES + OFF_TIME);
+        }
+
+        void close() {
+            try { channel.close(); } catch (IOException ignore) {}
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 텔레메트리 단계별 지연 히스토그램 (fan.telemetry.latency{stage=...})
+ * - bridge_to_server : 브리지 프레임 생성 시각(ts) → FanBridgeService 수신
+ * - receive_to_publish : 서버 수신 → 새 스냅샷 버전 발행
+ * - publish_to_render : 스냅샷 발행 → 브라우저 render() (클라이언트 보고, 시계 오차 포함)
+ * 음수이거나 1분을 넘는 값은 시계 오차로 보고 버립니다.
+ */
+@Component
+public class TelemetryLatencyRecorder {
+
+    private static final long MAX_PLAUSIBLE_MILLIS = 60_000;
+
+    private final Timer bridgeToServer;
+    private final Timer receiveToPublish;
+    private final Timer publishToRender;
+
+    public TelemetryLatencyRecorder(MeterRegistry meterRegistry) {
+        this.bridgeToServer = stage(meterRegistry, "bridge_to_server");
+        this.receiveToPublish = stage(meterRegistry, "receive_to_publish");
+        this.publishToRender = stage(meterRegistry, "publish_to_render");
+    }
+
+    private static Timer stage(MeterRegistry registry, String stage) {
+        return Timer.builder("fan.telemetry.latency")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMillis(MAX_PLAUSIBLE_MILLIS))
+                .register(registry);
+    }
+
+    public void bridgeToServer(long originMillis, long receivedMillis) {
+        record(bridgeToServer, originMillis, receivedMillis);
+    }
+
+    public void receiveToPublish(long receivedMillis, long publishedMillis) {
+        record(receiveToPublish, receivedMillis, publishedMillis);
+    }
+
+    public void publishToRender(long publishedMillis, long renderedMillis) {
+        record(publishToRender, publishedMillis, renderedMillis);
+    }
+
+    private static void record(Timer timer, long from, long to) {
+        if (from <= 0) return;
+        long d = to - from;
+        if (d >= 0 && d <= MAX_PLAUSIBLE_MILLIS) timer.record(d, TimeUnit.MILLISECONDS);
+    }
+}
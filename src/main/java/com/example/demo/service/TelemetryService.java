@@ -0,0 +1,195 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * UI 텔레메트리 스냅샷 보관소
+ * - FanBridgeService 가 만든 UI 스냅샷을 버전 번호와 함께 메모리에 보관합니다.
+ * - 내용(timestamp 제외)이 바뀔 때만 버전을 올리고 리스너(SSE 등)에게 알립니다.
+ *   온도/PWM 의 작은 흔들림은 TelemetryDeadband 로 걸러 버전을 올리지 않습니다.
+ * - 직렬화된 JSON 을 함께 보관해 여러 소비자가 같은 버전을 다시 직렬화하지 않게 합니다.
+ * - 버전은 재시작마다 0 부터 다시 세므로, 밖으로 내보내는 커서(ETag, SSE id, 롱폴링)는 프로세스마다 다른 epoch 를 붙인
+ *   "<epoch>-<version>" 을 씁니다. 재시작 전 커서는 다른 스냅샷과 같은 값이 되지 않습니다.
+ */
+@Service
+public class TelemetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryService.class);
+
+    // 내용 비교에서 제외하는 키 (매 틱마다 바뀌는 값, 구간 통계는 실제 값이 바뀔 때 함께 실려 감)
+    private static final Set<String> VOLATILE_KEYS = Set.of("timestamp", "version", "trace", "stats");
+
+    /** 버전이 붙은 불변 스냅샷 */
+    public record Snapshot(long version, Map<String, Object> data, String json, long createdAtMillis) {
+        public boolean isEmpty() { return version == 0; }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(0, Map.of(), "{}", 0);
+
+    private final FanBridgeService bridge;
+    private final ObjectMapper mapper;
+    private final TelemetryLatencyRecorder latency;
+    private final TelemetryStatsService stats;
+    private final TelemetryDeadband deadband;
+    private final Counter suppressed;
+    private double[] publishedRaw; // 마지막 발행 시점의 데드밴드 비교 값 (publishLocal 락 안에서만 사용)
+    private long lastTracedFrame; // receive_to_publish 를 프레임당 한 번만 기록하기 위한 마지막 수신 시각
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(EMPTY);
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    // 다음 버전을 기다리는 롱폴링 요청들이 공유하는 future (새 버전이 나올 때마다 교체)
+    private volatile CompletableFuture<Snapshot> nextChange = new CompletableFuture<>();
+
+    public TelemetryService(FanBridgeService bridge, ObjectMapper mapper, MeterRegistry meterRegistry,
+                            TelemetryLatencyRecorder latency, TelemetryStatsService stats, TelemetryDeadband deadband) {
+        this.bridge = bridge;
+        this.mapper = mapper;
+        this.latency = latency;
+        this.stats = stats;
+        this.deadband = deadband;
+        this.suppressed = meterRegistry.counter("fan.telemetry.deadband.suppressed");
+        Gauge.builder("fan.telemetry.snapshot.age", current, r -> r.get().isEmpty() ? Double.NaN : (System.currentTimeMillis() - r.get().createdAtMillis()) / 1000.0)
+                .description("seconds since the UI snapshot content last changed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("fan.telemetry.snapshot.version", current, r -> r.get().version())
+                .register(meterRegistry);
+    }
+
+    /** 마지막으로 만든 스냅샷 (아직 없으면 version 0 인 빈 스냅샷) */
+    public Snapshot current() {
+        return current.get();
+    }
+
+    /** 마지막 스냅샷, 아직 한 번도 만들지 않았다면 지금 만듭니다. */
+    public Snapshot latest() {
+        Snapshot s = current.get();
+        return s.isEmpty() ? refresh() : s;
+    }
+
+    /**
+     * Influx 값을 다시 조회한 뒤 스냅샷을 만들고, 내용이 바뀌었으면 버전을 올립니다. (첫 스냅샷용, 블로킹)
+     * Influx 조회는 락 밖에서 하므로 그동안 publishLocal 이 막히지 않습니다.
+     * 주기 푸시는 publishLocal 을 쓰고, Influx 캐시는 FanBridgeService 가 자기 스레드에서 갱신합니다.
+     * @return 현재 스냅샷 (바뀌지 않았으면 이전 스냅샷 그대로)
+     */
+    public Snapshot refresh() {
+        bridge.refreshInflux();
+        return publishLocal();
+    }
+
+    /**
+     * Influx 재조회 없이 브리지 최신 프레임 + 로컬 제어 상태 + 캐시된 Influx 값으로 스냅샷을 갱신합니다.
+     * 요청 스레드(제어 명령)에서 호출해도 I/O 가 없습니다.
+     */
+    public synchronized Snapshot publishLocal() {
+        long receivedAt = bridge.getLastFrameReceivedAt();
+        long originAt = bridge.getLastFrameOriginAt();
+        Map<String, Object> data = bridge.getCachedUiTelemetry();
+        double[] raw = deadband.sample(data, bridge.getLastTelemetry());
+        Snapshot prev = current.get();
+        long now = System.currentTimeMillis();
+        if (!prev.isEmpty()) {
+            Map<String, Object> before = strip(prev.data());
+            Map<String, Object> after = strip(data);
+            if (before.equals(after)) return prev;
+            if (deadband.suppress(before, after, publishedRaw, raw, now - prev.createdAtMillis())) {
+                suppressed.increment();
+                return prev;
+            }
+        }
+
+        long version = prev.version() + 1;
+        Map<String, Object> versioned = new LinkedHashMap<>(data);
+        versioned.put("version", version);
+        versioned.put("trace", trace(originAt, receivedAt, now));
+        versioned.put("stats", stats.current(now));
+        if (receivedAt > lastTracedFrame) {
+            latency.receiveToPublish(receivedAt, now);
+            lastTracedFrame = receivedAt;
+        }
+        Snapshot next = new Snapshot(version, Collections.unmodifiableMap(versioned), toJson(versioned), now);
+        current.set(next);
+        publishedRaw = raw;
+        CompletableFuture<Snapshot> waiting = nextChange;
+        nextChange = new CompletableFuture<>();
+        waiting.complete(next);
+        for (Consumer<Snapshot> l : listeners) {
+            try { l.accept(next); } catch (Exception e) { log.debug("[telemetry] listener fail: {}", e.toString()); }
+        }
+        return next;
+    }
+
+    /** 이 프로세스의 스냅샷 커서 "<epoch>-<version>" (ETag, SSE event id, waitForChangeAfter 에 사용) */
+    public String cursorOf(Snapshot s) {
+        return epoch + "-" + s.version();
+    }
+
+    /** 이 프로세스가 만든 커서면 그 버전, 재시작 전 커서이거나 형식이 다르면 -1 */
+    public long versionOf(String cursor) {
+        if (cursor == null || !cursor.startsWith(epoch + "-")) return -1;
+        try {
+            return Long.parseLong(cursor.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 커서의 스냅샷 이후 변경을 기다립니다.
+     * @return 현재 스냅샷이 커서와 다르면(더 새 버전, 아직 없는 버전, 재시작 전 커서) 바로 완료된 future,
+     *         같으면 다음 버전이 만들어질 때 완료되는 future
+     */
+    public CompletableFuture<Snapshot> awaitAfter(String cursor) {
+        CompletableFuture<Snapshot> waiting = nextChange; // current 보다 먼저 읽어야 변경을 놓치지 않음
+        Snapshot s = current.get();
+        if (s.isEmpty() || versionOf(cursor) == s.version()) return waiting;
+        return CompletableFuture.completedFuture(s);
+    }
+
+    public void addListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Snapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    // 지연 추적 스탬프: 브리지 생성 / 서버 수신 / 스냅샷 발행 시각 (epoch ms, 모르면 생략)
+    private static Map<String, Object> trace(long originAt, long receivedAt, long publishedAt) {
+        Map<String, Object> t = new LinkedHashMap<>();
+        if (originAt > 0) t.put("originAt", originAt);
+        if (receivedAt > 0) t.put("receivedAt", receivedAt);
+        t.put("publishedAt", publishedAt);
+        return t;
+    }
+
+    private static Map<String, Object> strip(Map<String, Object> m) {
+        Map<String, Object> copy = new HashMap<>(m);
+        copy.keySet().removeAll(VOLATILE_KEYS);
+        return copy;
+    }
+
+    private String toJson(Map<String, Object> data) {
+        try {
+            return mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("[telemetry] serialize fail: {}", e.toString());
+            return "{}";
+        }
+    }
+}
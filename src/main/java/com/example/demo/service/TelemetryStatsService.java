@@ -0,0 +1,191 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 텔레메트리 구간 통계 (1m / 5m / 1h 의 min, max, avg, p50, p90, p99)
+ * - 브리지 프레임 리스너에서 샘플마다 갱신합니다. 창마다 60개 시간 버킷을 돌려 쓰므로 샘플당 O(1)
+ *   (버킷이 바뀔 때 빠지는 버킷만큼 창 합계에서 뺌)
+ * - 백분위는 0~150 을 1 단위로 나눈 고정 히스토그램으로 구합니다. (°C / PWM % 에 충분한 해상도)
+ * - 조회 결과는 새 샘플이 없고 1초가 지나지 않았으면 캐시를 돌려주므로, 요청 수와 무관하게 계산은 초당 한 번 정도입니다.
+ */
+@Service
+public class TelemetryStatsService {
+
+    /** 통계 이름 → 프레임 키 */
+    private static final String[] METRICS = {"cpuTemp", "gpuTemp", "actualPwm"};
+    private static final String[] FRAME_KEYS = {"cpuTemp", "gpuTemp", "pwm_value"};
+    private static final String[] WINDOW_NAMES = {"1m", "5m", "1h"};
+    private static final long[] WINDOW_MILLIS = {60_000, 300_000, 3_600_000};
+    private static final int BUCKETS = 60;
+    private static final int MAX_VALUE = 150;
+    private static final long CACHE_MILLIS = 1000;
+
+    /** 창 하나의 요약 (샘플이 없으면 count 0, 나머지 null) */
+    public record Summary(long count, Double min, Double max, Double avg, Double p50, Double p90, Double p99) {
+        static final Summary EMPTY = new Summary(0, null, null, null, null, null, null);
+    }
+
+    private final FanBridgeService bridge;
+    private final FanBridgeService.FrameListener listener = (frame, origin, received) -> accept(frame, received);
+    private final Window[][] windows = new Window[METRICS.length][WINDOW_NAMES.length];
+
+    private long samples;
+    private long cachedAtSamples = -1;
+    private long cachedAt;
+    private Map<String, Map<String, Summary>> cached = Map.of();
+
+    public TelemetryStatsService(FanBridgeService bridge) {
+        this.bridge = bridge;
+        for (int m = 0; m < METRICS.length; m++) {
+            for (int w = 0; w < WINDOW_NAMES.length; w++) {
+                windows[m][w] = new Window(WINDOW_MILLIS[w] / BUCKETS);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        bridge.addFrameListener(listener);
+    }
+
+    @PreDestroy
+    public void stop() {
+        bridge.removeFrameListener(listener);
+    }
+
+    /** 프레임 한 건 반영 (숫자가 아닌 값은 건너뜀) */
+    synchronized void accept(Map<String, Object> frame, long nowMillis) {
+        for (int m = 0; m < METRICS.length; m++) {
+            if (!(frame.get(FRAME_KEYS[m]) instanceof Number n)) continue;
+            double v = n.doubleValue();
+            if (!Double.isFinite(v)) continue;
+            for (Window w : windows[m]) w.add(nowMillis, v);
+        }
+        samples++;
+    }
+
+    /** 창 이름 → 지표 이름 → 요약. 변경 불가 맵 */
+    public Map<String, Map<String, Summary>> current() {
+        return current(System.currentTimeMillis());
+    }
+
+    synchronized Map<String, Map<String, Summary>> current(long nowMillis) {
+        if (samples == cachedAtSamples && nowMillis - cachedAt < CACHE_MILLIS) return cached;
+        Map<String, Map<String, Summary>> out = new LinkedHashMap<>();
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            Map<String, Summary> byMetric = new LinkedHashMap<>();
+            for (int m = 0; m < METRICS.length; m++) byMetric.put(METRICS[m], windows[m][w].summary(nowMillis));
+            out.put(WINDOW_NAMES[w], Collections.unmodifiableMap(byMetric));
+        }
+        cached = Collections.unmodifiableMap(out);
+        cachedAt = nowMillis;
+        cachedAtSamples = samples;
+        return cached;
+    }
+
+    /** BUCKETS 개 시간 버킷을 돌려 쓰는 창. 창 전체 합계/히스토그램을 따로 유지해 버킷이 빠질 때만 뺍니다. */
+    private static final class Window {
+        private final long bucketMillis;
+        private final long[] bucketStart = new long[BUCKETS];
+        private final int[] count = new int[BUCKETS];
+        private final double[] sum = new double[BUCKETS];
+        private final double[] min = new double[BUCKETS];
+        private final double[] max = new double[BUCKETS];
+        private final int[][] hist = new int[BUCKETS][MAX_VALUE + 1];
+
+        private final int[] totalHist = new int[MAX_VALUE + 1];
+        private long totalCount;
+        private double totalSum;
+
+        Window(long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+            Arrays.fill(bucketStart, Long.MIN_VALUE);
+        }
+
+        void add(long now, double v) {
+            int i = slot(now);
+            count[i]++;
+            sum[i] += v;
+            if (count[i] == 1 || v < min[i]) min[i] = v;
+            if (count[i] == 1 || v > max[i]) max[i] = v;
+            int bin = bin(v);
+            hist[i][bin]++;
+            totalHist[bin]++;
+            totalCount++;
+            totalSum += v;
+        }
+
+        Summary summary(long now) {
+            expire(now);
+            if (totalCount == 0) return Summary.EMPTY;
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (count[i] == 0) continue;
+                lo = Math.min(lo, min[i]);
+                hi = Math.max(hi, max[i]);
+            }
+            return new Summary(totalCount, round(lo), round(hi), round(totalSum / totalCount),
+                    percentile(0.50), percentile(0.90), percentile(0.99));
+        }
+
+        // now 가 속한 버킷 위치. 예전 시간의 버킷이 남아 있으면 비우고 재사용
+        private int slot(long now) {
+            long start = now - Math.floorMod(now, bucketMillis);
+            int i = (int) Math.floorMod(now / bucketMillis, (long) BUCKETS);
+            if (bucketStart[i] != start) {
+                evict(i);
+                bucketStart[i] = start;
+            }
+            return i;
+        }
+
+        // 창 밖으로 밀려난 버킷 정리 (샘플이 끊긴 동안에도 창이 미끄러지도록 조회 시 호출)
+        private void expire(long now) {
+            long oldest = now - Math.floorMod(now, bucketMillis) - (BUCKETS - 1) * bucketMillis;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (count[i] > 0 && bucketStart[i] < oldest) evict(i);
+            }
+        }
+
+        private void evict(int i) {
+            if (count[i] == 0) return;
+            totalCount -= count[i];
+            totalSum -= sum[i];
+            int[] h = hist[i];
+            for (int b = 0; b <= MAX_VALUE; b++) {
+                if (h[b] != 0) {
+                    totalHist[b] -= h[b];
+                    h[b] = 0;
+                }
+            }
+            count[i] = 0;
+            sum[i] = 0;
+        }
+
+        private Double percentile(double q) {
+            long rank = (long) Math.ceil(q * totalCount);
+            long seen = 0;
+            for (int b = 0; b <= MAX_VALUE; b++) {
+                seen += totalHist[b];
+                if (seen >= rank) return (double) b;
+            }
+            return (double) MAX_VALUE;
+        }
+
+        private static int bin(double v) {
+            return (int) Math.max(0, Math.min(MAX_VALUE, Math.round(v)));
+        }
+
+        private static Double round(double v) {
+            return Math.round(v * 10) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 읽기 전용 클라이언트용 SSE 텔레메트리 스트림
+ * - TelemetryService 의 새 스냅샷 버전을 각 스트림으로 전달합니다. (event id = 스냅샷 커서 "<epoch>-<version>")
+ * - 클라이언트별로 보류 슬롯 하나만 두어, 전송이 밀리면 중간 버전은 건너뛰고 최신 버전만 보냅니다.
+ * - 재연결 시 Last-Event-ID 가 현재 스냅샷 커서와 같으면 다음 변경까지 기다리고, 다르면(재시작 전 id 포함) 현재 스냅샷부터 보냅니다.
+ * - 전송(emitter.send)은 블로킹이므로 클라이언트마다 전송 작업은 최대 하나, 전송 스레드는 스트림 상한까지 늘어납니다.
+ *   느린 클라이언트 하나가 다른 클라이언트의 전송 스레드를 잡고 있지 않습니다.
+ * - 한 번의 전송이 writeTimeoutMillis 를 넘긴 클라이언트는 다음 스냅샷 때 스트림 목록에서 빼고 더 보내지 않습니다.
+ *   (막힌 쓰기 자체는 컨테이너의 소켓 쓰기 타임아웃으로 끝나고 그때 스레드가 반환됨)
+ */
+@Service
+public class TelemetryStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryStreamService.class);
+
+    private final TelemetryService telemetry;
+    private final int maxStreams;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+    private final ExecutorService sender;
+    private final Counter stalled;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Consumer<TelemetryService.Snapshot> listener = this::onSnapshot;
+
+    public TelemetryStreamService(TelemetryService telemetry,
+                                  @Value("${fan.sse.maxStreams:200}") int maxStreams,
+                                  @Value("${fan.sse.timeoutMillis:1800000}") long timeoutMillis,
+                                  @Value("${fan.sse.writeTimeoutMillis:10000}") long writeTimeoutMillis,
+                                  MeterRegistry meterRegistry) {
+        this.telemetry = telemetry;
+        this.maxStreams = maxStreams;
+        this.timeoutMillis = timeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        AtomicInteger seq = new AtomicInteger();
+        // 쉬는 스레드는 60초 뒤 정리, 동시에 전송 중인 클라이언트 수만큼만 스레드가 있음
+        this.sender = new ThreadPoolExecutor(0, Math.max(1, maxStreams), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "telemetry-sse-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.stalled = meterRegistry.counter("fan.telemetry.sse.stalled");
+        Gauge.builder("fan.telemetry.subscribers", open, AtomicInteger::get)
+                .tag("transport", "sse")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        telemetry.addListener(listener);
+    }
+
+    @PreDestroy
+    public void stop() {
+        telemetry.removeListener(listener);
+        clients.forEach(c -> { try { c.emitter.complete(); } catch (Exception ignore) {} });
+        sender.shutdownNow();
+    }
+
+    /**
+     * 새 스트림 열기
+     * @param lastEventId 클라이언트가 마지막으로 받은 스냅샷 커서 (없으면 null)
+     * @throws ResponseStatusException 동시 스트림 상한 초과 시 503
+     */
+    public SseEmitter open(String lastEventId) {
+        if (open.incrementAndGet() > maxStreams) {
+            open.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many telemetry streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter, lastEventId);
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(e -> remove(client));
+        clients.add(client);
+
+        // 이미 있는 스냅샷만 (요청 스레드에서 Influx 를 조회하지 않음), 아직 없으면 첫 스냅샷이 나올 때 전송
+        TelemetryService.Snapshot s = telemetry.current();
+        if (!s.isEmpty()) client.offer(s);
+        return emitter;
+    }
+
+    public int openStreams() {
+        return open.get();
+    }
+
+    private void onSnapshot(TelemetryService.Snapshot s) {
+        for (Client c : clients) c.offer(s);
+    }
+
+    private void remove(Client client) {
+        if (clients.remove(client)) open.decrementAndGet();
+    }
+
+    private final class Client {
+        private final SseEmitter emitter;
+        private final AtomicReference<TelemetryService.Snapshot> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final String resumeFrom;
+        private volatile long lastSent;
+        private volatile long sendingSince; // 진행 중인 send 시작 시각, 0 이면 전송 중 아님
+
+        private Client(SseEmitter emitter, String lastEventId) {
+            this.emitter = emitter;
+            this.resumeFrom = lastEventId;
+        }
+
+        // 보류 슬롯을 더 최신 스냅샷으로 덮어쓰고, 전송 중이 아니면 전송 작업을 예약
+        void offer(TelemetryService.Snapshot s) {
+            long since = sendingSince;
+            if (since != 0 && System.currentTimeMillis() - since > writeTimeoutMillis) {
+                log.debug("[sse] client stalled for {}ms, dropped", System.currentTimeMillis() - since);
+                stalled.increment();
+                remove(this);
+                return;
+            }
+            pending.accumulateAndGet(s, (cur, n) -> cur == null || n.version() > cur.version() ? n : cur);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 막힌 전송 스레드가 아직 반환되지 않아 상한에 걸림: 이 클라이언트는 다음 스냅샷 때 다시 시도
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                TelemetryService.Snapshot s;
+                while ((s = pending.getAndSet(null)) != null) {
+                    String id = telemetry.cursorOf(s);
+                    if (s.version() <= lastSent || id.equals(resumeFrom)) continue;
+                    sendingSince = System.currentTimeMillis();
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(id)
+                                .data(s.json(), MediaType.APPLICATION_JSON));
+                    } finally {
+                        sendingSince = 0;
+                    }
+                    lastSent = s.version();
+                }
+            } catch (Exception e) {
+                // 연결이 끊긴 클라이언트: 컨테이너가 onError/onCompletion 을 호출하지만 즉시 제외
+                log.debug("[sse] send fail: {}", e.toString());
+                remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (pending.get() != null) schedule();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * STOMP 텔레메트리 구독 등급별 전송
+ * - 클라이언트는 구독할 destination 으로 갱신 주기를 고릅니다. 바꿀 때는 구독을 해제하고 다른 등급을 구독합니다.
+ *   (예: 탭이 숨겨지면 realtime → 0.1hz)
+ *   - /topic/telemetry.realtime : 새 스냅샷 버전마다 (구독자가 있을 때만 브리지 프레임마다 스냅샷 갱신)
+ *   - /topic/telemetry          : 1초 주기 (기존 destination, 기본값)
+ *   - /topic/telemetry.slow     : 10초 주기 (백그라운드 탭, 상황판)
+ * - 모든 등급은 TelemetryService 의 같은 스냅샷(같은 Map)을 보내고, 등급마다 마지막으로 보낸 버전 이후에 바뀐 것이 있을 때만 보냅니다.
+ *   구독자가 없는 등급은 건너뛰므로, 서버 송신량은 연결 수가 아니라 실제로 필요한 갱신 빈도를 따라갑니다.
+ * - 새 구독이 생기면 해당 등급은 다음 틱(최대 1초)에 현재 스냅샷을 한 번 더 보냅니다. (구독 직후 초기값)
+ */
+@Service
+public class TelemetryTierService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryTierService.class);
+
+    public enum Tier {
+        REALTIME("realtime", StompSubscriptionTracker.TELEMETRY_TOPIC + ".realtime", 0),
+        NORMAL("1hz", StompSubscriptionTracker.TELEMETRY_TOPIC, 1000),
+        SLOW("0.1hz", StompSubscriptionTracker.TELEMETRY_TOPIC + ".slow", 10_000);
+
+        private final String tag;
+        private final String destination;
+        private final long periodMillis;
+
+        Tier(String tag, String destination, long periodMillis) {
+            this.tag = tag;
+            this.destination = destination;
+            this.periodMillis = periodMillis;
+        }
+
+        public String tag() { return tag; }
+        public String destination() { return destination; }
+        public long periodMillis() { return periodMillis; }
+
+        /** destination 에 해당하는 등급, 텔레메트리 destination 이 아니면 null */
+        public static Tier of(String destination) {
+            for (Tier t : values()) if (t.destination.equals(destination)) return t;
+            return null;
+        }
+    }
+
+    private static final Tier[] TIERS = Tier.values();
+
+    private final SimpMessagingTemplate broker;
+    private final TelemetryService telemetry;
+    private final FanBridgeService bridge;
+    private final StompSubscriptionTracker subscriptions;
+    private final Counter[] sent = new Counter[TIERS.length];
+    private final Consumer<TelemetryService.Snapshot> listener = this::onSnapshot;
+    private final FanBridgeService.FrameListener frameListener = (frame, origin, received) -> onFrame();
+
+    // 등급별 전송 상태 (synchronized 안에서만 접근)
+    private final long[] lastVersion = new long[TIERS.length];
+    private final long[] lastSentAt = new long[TIERS.length];
+    private final boolean[] resend = new boolean[TIERS.length];
+
+    public TelemetryTierService(SimpMessagingTemplate broker, TelemetryService telemetry, FanBridgeService bridge,
+                                StompSubscriptionTracker subscriptions, MeterRegistry meterRegistry) {
+        this.broker = broker;
+        this.telemetry = telemetry;
+        this.bridge = bridge;
+        this.subscriptions = subscriptions;
+        for (Tier t : TIERS) {
+            sent[t.ordinal()] = Counter.builder("fan.telemetry.tier.sent").tag("tier", t.tag()).register(meterRegistry);
+            Gauge.builder("fan.telemetry.tier.subscribers", subscriptions, s -> s.count(t.destination()))
+                    .tag("tier", t.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        telemetry.addListener(listener);
+        bridge.addFrameListener(frameListener);
+    }
+
+    @PreDestroy
+    public void stop() {
+        bridge.removeFrameListener(frameListener);
+        telemetry.removeListener(listener);
+    }
+
+    /** 주기 작업(1초)에서 호출: 1hz / 0.1hz 등급 전송, 새 구독자가 있는 등급은 주기와 무관하게 현재 스냅샷 전송 */
+    public synchronized void tick(TelemetryService.Snapshot s, long nowMillis) {
+        if (s.isEmpty()) return;
+        for (Tier t : TIERS) {
+            int i = t.ordinal();
+            if (resend[i]) {
+                resend[i] = false;
+                send(t, s, nowMillis);
+            } else if (t != Tier.REALTIME && s.version() != lastVersion[i] && nowMillis - lastSentAt[i] >= t.periodMillis()) {
+                send(t, s, nowMillis);
+            }
+        }
+    }
+
+    /** 제어 명령 직후 스냅샷: 모든 등급에 바로 전송 (주기와 무관, 0.1hz 등급의 다음 주기는 그대로) */
+    public synchronized void publishNow(TelemetryService.Snapshot s) {
+        if (s.isEmpty()) return;
+        for (Tier t : TIERS) {
+            if (s.version() == lastVersion[t.ordinal()]) continue;
+            send(t, s, lastSentAt[t.ordinal()]);
+        }
+    }
+
+    @EventListener
+    public synchronized void onSubscribe(SessionSubscribeEvent event) {
+        Tier t = Tier.of(SimpMessageHeaderAccessor.wrap(event.getMessage()).getDestination());
+        if (t != null) resend[t.ordinal()] = true;
+    }
+
+    // 새 버전마다 realtime 등급으로
+    private synchronized void onSnapshot(TelemetryService.Snapshot s) {
+        if (s.version() != lastVersion[Tier.REALTIME.ordinal()]) send(Tier.REALTIME, s, System.currentTimeMillis());
+    }
+
+    // realtime 구독자가 있을 때만 프레임마다 스냅샷 갱신 (없으면 1초 주기 갱신만)
+    private void onFrame() {
+        if (subscriptions.count(Tier.REALTIME.destination()) > 0) telemetry.publishLocal();
+    }
+
+    private void send(Tier t, TelemetryService.Snapshot s, long nowMillis) {
+        int i = t.ordinal();
+        if (subscriptions.count(t.destination()) <= 0) return;
+        lastVersion[i] = s.version();
+        lastSentAt[i] = nowMillis;
+        try {
+            broker.convertAndSend(t.destination(), s.data());
+            sent[i].increment();
+        } catch (Exception e) {
+            log.debug("[telemetry] {} push fail: {}", t.tag(), e.toString());
+        }
+    }
+}
@@ -25,6 +25,15 @@ public interface UserService {
      */
     Optional<User> login(UserDto.LoginRequest loginRequest);
 
+    /**
+     * 로그인 (IP 기반 시도 제한 포함)
+     * @param loginRequest 로그인 요청 DTO
+     * @param clientIp 요청자 IP
+     * @return 로그인 성공 시 사용자 정보, 실패 시 빈 Optional
+     * @throws LoginRejectedException 시도 제한 초과 또는 비밀번호 검증 작업 포화 시
+     */
+    Optional<User> login(UserDto.LoginRequest loginRequest, String clientIp);
+
     /**
      * 사용자 ID로 사용자 정보 조회
      * @param id 사용자 ID
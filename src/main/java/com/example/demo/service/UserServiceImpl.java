@@ -3,11 +3,19 @@ package com.example.demo.service;
 import com.example.demo.dto.UserDto;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.LoginThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 사용자 서비스 구현 클래스
@@ -16,41 +24,46 @@ import java.util.Optional;
 @Service
 public class UserServiceImpl implements UserService {
 
+    // users 테이블 UNIQUE 제약 이름 (schema.sql)
+    static final String UK_USERS_USERNAME = "uk_users_username";
+    static final String UK_USERS_EMAIL = "uk_users_email";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+    private final MeterRegistry meterRegistry;
 
     // 생성자
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, LoginThrottle loginThrottle,
+                           MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.loginThrottle = loginThrottle;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * 회원가입 처리
-     * - 사용자 이름과 이메일 중복 검사
-     * - 비밀번호 암호화 (실제 구현에서는 BCrypt 등 사용)
+     * - 사용자 이름/이메일 중복은 users 테이블의 UNIQUE 제약으로 판별 (INSERT 한 번)
+     *   어느 쪽인지는 위반된 제약 이름(SQLException)으로 구분하고, 알 수 없으면 실패 경로에서만 이메일을 조회
+     * - 비밀번호 암호화 (BCrypt)
      * - 사용자 정보 저장
      */
     @Override
     @Transactional
     public UserDto.Response register(UserDto.RegisterRequest registerRequest) {
-        // 사용자 이름 중복 검사
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            throw new IllegalArgumentException("이미 사용 중인 사용자 이름입니다.");
-        }
-
-        // 이메일 중복 검사
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new IllegalArgumentException("이미 사용 중인 이메일입니다.");
-        }
-
         if ("admin".equalsIgnoreCase(registerRequest.getUsername())) {
             throw new IllegalArgumentException("admin은 사용할 수 없는 사용자 이름입니다.");
         }
 
         // 비밀번호 암호화 (실제 구현에서는 BCrypt 등 사용)
         // 여기서는 간단히 처리하지만, 실제로는 보안을 위해 암호화 필요
-        String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
+        String encodedPassword;
+        try {
+            encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            throw new IllegalArgumentException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        }
 
         // 사용자 객체 생성
         User user = new User();
@@ -60,8 +73,16 @@ public class UserServiceImpl implements UserService {
         user.setEmail(registerRequest.getEmail());
         user.setRole("USER"); // 기본 역할 설정
 
-        // 사용자 저장
-        User savedUser = userRepository.save(user);
+        // 사용자 저장: 동시 가입 경쟁도 DB 제약이 한 건만 통과시킴
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            if (isEmailDuplicate(e, registerRequest.getEmail())) {
+                throw new IllegalArgumentException("이미 사용 중인 이메일입니다.");
+            }
+            throw new IllegalArgumentException("이미 사용 중인 사용자 이름입니다.");
+        }
 
         // 응답 DTO 반환
         return new UserDto.Response(
@@ -72,6 +93,37 @@ public class UserServiceImpl implements UserService {
         );
     }
 
+    // 제약 이름을 찾으면 그것으로, 못 찾으면 (드라이버가 이름을 싣지 않는 DB) 이메일 존재 여부로 판별
+    private boolean isEmailDuplicate(DuplicateKeyException e, String email) {
+        String constraint = violatedConstraint(e);
+        if (constraint != null) return UK_USERS_EMAIL.equals(constraint);
+        try {
+            return userRepository.existsByEmail(email);
+        } catch (DataAccessException ignored) {
+            // 트랜잭션이 이미 중단된 DB 등: 사용자 이름 중복으로 안내
+            return false;
+        }
+    }
+
+    /**
+     * 위반된 users UNIQUE 제약 이름
+     * - 원인 체인의 SQLException 중 무결성 위반(SQLState 23xxx)만 보고, 제약 이름은 대소문자를 구분하지 않고 비교
+     * @return UK_USERS_USERNAME / UK_USERS_EMAIL, 알 수 없으면 null
+     */
+    static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (!(t instanceof SQLException sql)) continue;
+            for (SQLException x = sql; x != null; x = x.getNextException()) {
+                String state = x.getSQLState();
+                if (state == null || !state.startsWith("23") || x.getMessage() == null) continue;
+                String message = x.getMessage().toLowerCase(Locale.ROOT);
+                if (message.contains(UK_USERS_EMAIL)) return UK_USERS_EMAIL;
+                if (message.contains(UK_USERS_USERNAME)) return UK_USERS_USERNAME;
+            }
+        }
+        return null;
+    }
+
     /**
      * 로그인 처리
      * - 사용자 이름으로 사용자 조회
@@ -79,9 +131,41 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Optional<User> login(UserDto.LoginRequest loginRequest) {
-        // 사용자 이름으로 사용자 조회
-        return userRepository.findByUsername(loginRequest.getUsername())
-                .filter(user -> passwordEncoder.matches(loginRequest.getPassword(), user.getPassword()));
+        return login(loginRequest, null);
+    }
+
+    /**
+     * 로그인 처리 (시도 제한 포함)
+     * - 시도를 먼저 예약하고, 한도를 넘은 사용자 이름/IP는 해시 계산 전에 거절
+     * - 비밀번호 검증은 BoundedPasswordEncoder 의 전용 풀에서 수행되며, 포화 시 즉시 거절
+     */
+    @Override
+    public Optional<User> login(UserDto.LoginRequest loginRequest, String clientIp) {
+        String username = loginRequest.getUsername();
+        if (!loginThrottle.tryAcquire(username, clientIp)) {
+            authFailure("login_throttled");
+            throw new LoginRejectedException("로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        Optional<User> user;
+        try {
+            // 사용자 이름으로 사용자 조회
+            user = userRepository.findByUsername(username)
+                    .filter(u -> passwordEncoder.matches(loginRequest.getPassword(), u.getPassword()));
+        } catch (RejectedExecutionException e) {
+            loginThrottle.release(username, clientIp); // 비밀번호를 확인하지 못했으므로 실패로 세지 않음
+            authFailure("login_busy");
+            throw new LoginRejectedException("로그인 요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        // 실패는 예약한 시도가 그대로 남음
+        if (user.isPresent()) loginThrottle.onSuccess(username, clientIp);
+        else authFailure("login_failed");
+        return user;
+    }
+
+    private void authFailure(String reason) {
+        meterRegistry.counter("fan.auth.failures", "reason", reason, "channel", "http").increment();
     }
 
     /**
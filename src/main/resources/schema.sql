@@ -1,13 +1,16 @@
 DROP TABLE IF EXISTS users;
 CREATE TABLE users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
+    username VARCHAR(50) NOT NULL,
     password VARCHAR(200) NOT NULL,
     name VARCHAR(100) NOT NULL,
-    email VARCHAR(100) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL,
     role VARCHAR(30) NOT NULL DEFAULT 'USER',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- 회원가입 중복 판별은 이 제약 이름으로 합니다 (UserServiceImpl.register)
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
 );
 
 -- Q&A tables
@@ -37,3 +40,14 @@ CREATE TABLE answers (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+-- HTTP 세션 (JdbcSessionRepository). 시각은 epoch ms, 재시작 후에도 로그인이 유지되도록 DROP 하지 않음
+CREATE TABLE IF NOT EXISTS app_sessions (
+    id VARCHAR(64) PRIMARY KEY,
+    created_at BIGINT NOT NULL,
+    last_accessed_at BIGINT NOT NULL,
+    max_inactive_seconds INT NOT NULL,
+    expires_at BIGINT NOT NULL,
+    attributes BLOB NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_app_sessions_expires_at ON app_sessions (expires_at);
@@ -118,6 +118,22 @@ console.log('[fan] fan.js loaded');
       serverModeBadge.innerHTML = `현재 서버 모드: <span class="badge ${m==='MANUAL'?'bg-warning text-dark':'bg-secondary'}">${m}</span>`;
     }
 
+    // 서버 오류/제어 결과 메시지: 모드 배지 아래에 5초간 표시
+    let serverMsgTimer = null;
+    function showServerMessage(msg){
+      if (!serverModeBadge) return;
+      let box = document.getElementById('serverMessage');
+      if (!box) {
+        box = document.createElement('div');
+        box.id = 'serverMessage';
+        box.className = 'form-text text-danger';
+        serverModeBadge.after(box);
+      }
+      box.textContent = msg;
+      if (serverMsgTimer) clearTimeout(serverMsgTimer);
+      serverMsgTimer = setTimeout(()=>{ box.textContent = ''; }, 5000);
+    }
+
     // 초기값 반영
     try {
       const sectionEl = document.getElementById('fanSection');
@@ -259,20 +275,80 @@ console.log('[fan] fan.js loaded');
       }
     }
 
+    // 렌더 지연 보고: 페이지 로드 시 data-render-report-rate 확률로 참여, 새 버전을 그릴 때마다 발행→렌더 시간을 서버로 보냄
+    const renderReportRate = Number(sectionElCheck.dataset.renderReportRate || 0);
+    const reportRender = Math.random() < renderReportRate;
+    let lastReportedVersion = null;
+    function reportRenderLatency(client, data){
+      if (!reportRender || !data || data.version == null || data.version === lastReportedVersion) return;
+      const publishedAt = data.trace && data.trace.publishedAt;
+      if (!publishedAt) return;
+      lastReportedVersion = data.version;
+      requestAnimationFrame(()=>{
+        try { client.send('/ws/telemetry/render', {}, JSON.stringify({ version: data.version, publishedAt, renderedAt: Date.now() })); }
+        catch(e){ console.debug('[fan] render report fail', e); }
+      });
+    }
+
+    // 텔레메트리 갱신 등급: 보이는 탭은 realtime, 숨겨진 탭은 0.1hz (?tier=realtime|1hz|0.1hz 로 고정 가능, 상황판 등)
+    const TELEMETRY_TIERS = { 'realtime': '/topic/telemetry.realtime', '1hz': '/topic/telemetry', '0.1hz': '/topic/telemetry.slow' };
+    const requestedTier = new URLSearchParams(location.search).get('tier');
+    const pinnedTier = TELEMETRY_TIERS[requestedTier] ? requestedTier : null;
+    let telemetrySub = null, telemetryTier = null;
+    function wantedTier(){
+      return pinnedTier || (document.hidden ? '0.1hz' : 'realtime');
+    }
+    // 등급이 바뀌면 기존 구독을 해제하고 새 등급을 구독 (서버는 새 구독에 현재 스냅샷을 한 번 보냄)
+    function subscribeTelemetry(client){
+      const tier = wantedTier();
+      if (telemetrySub && telemetryTier === tier) return;
+      if (telemetrySub) { try { telemetrySub.unsubscribe(); } catch(e){} }
+      telemetryTier = tier;
+      telemetrySub = client.subscribe(TELEMETRY_TIERS[tier], msg=>{
+        try{ const data = JSON.parse(msg.body); render(data); reportRenderLatency(client, data); }catch(e){ console.error('ws parse', e);}
+      });
+      console.log('[fan] telemetry tier', tier);
+    }
+    document.addEventListener('visibilitychange', ()=>{
+      if (window.__stompClient && window.__stompConnected) subscribeTelemetry(window.__stompClient);
+    });
+
     function startWs(){
       if (!window.SockJS || !window.Stomp) return false;
       try {
         const sock = new SockJS('/ws-endpoint');
         const client = Stomp.over(sock);
         client.debug = ()=>{}; // quiet
-        client.connect({}, ()=>{
+        // 페이지에 발급된 토큰으로 CONNECT 인증 (없으면 핸드셰이크 세션으로 인증)
+        const wsToken = sectionElCheck.dataset.wsToken;
+        client.connect(wsToken ? { Authorization: 'Bearer ' + wsToken } : {}, ()=>{
           window.__stompClient = client; window.__stompConnected = true;
           console.log('[fan] ws connected');
-          client.subscribe('/topic/telemetry', msg=>{ try{ render(JSON.parse(msg.body)); }catch(e){ console.error('ws parse', e);} });
+          subscribeTelemetry(client);
+          // 내가 보낸 제어 명령의 결과만 수신 (다른 사용자의 오류는 오지 않음)
+          client.subscribe('/user/queue/control-result', msg=>{
+            try{
+              const r = JSON.parse(msg.body);
+              if (!r.ok) { showServerMessage(r.error || 'control failed'); setEditingMode(false); }
+            }catch(e){ console.error('control result parse', e);}
+          });
+          // 알림: /topic/alerts 는 발생/해제 이벤트 하나씩, /ws/alerts 는 구독 직후 한 번 현재 발생 중인 목록(배열)
+          const onAlert = msg=>{
+            try{
+              const body = JSON.parse(msg.body);
+              (Array.isArray(body) ? body : [body]).forEach(a=>{
+                if (a.state === 'FIRING') showServerMessage(`[${(a.severity||'warning').toUpperCase()}] ${a.message}`);
+                else console.log('[fan] alert resolved', a.rule);
+              });
+            }catch(e){ console.error('alert parse', e);}
+          };
+          client.subscribe('/topic/alerts', onAlert);
+          client.subscribe('/ws/alerts', onAlert);
           // 구독 직후 서버가 초기 스냅샷을 push하므로 별도 fetch 불필요
         }, (err)=>{
           console.warn('[fan] ws connect fail', err);
           window.__stompConnected = false;
+          telemetrySub = null;
           try{ client.disconnect(()=>{}); }catch{}
         });
         return true;
@@ -471,9 +547,14 @@ console.log('[fan] fan.js loaded');
         }
       } catch(e){ console.warn('[fan] forced visibility failed', e); }
       updateVisibility();
-      sendSpeedControl();
+      sendSpeedSoon();
     });
 
+    // 연속 입력(모드 변경/Apply 연타)은 마지막 의도 하나만 보냄: 전송 시점의 입력값을 읽으므로 최신 값이 반영됨
+    const debounce = (fn, ms)=>{ let t = null; return ()=>{ if (t) clearTimeout(t); t = setTimeout(()=>{ t = null; fn(); }, ms); }; };
+    const sendSpeedSoon = debounce(sendSpeedControl, 200);
+    const sendTempSoon = debounce(sendTempControl, 200);
+
     if (pwmRange) {
       pwmRange.addEventListener('input', ()=>{
         setEditingPwm(true);
@@ -494,7 +575,7 @@ console.log('[fan] fan.js loaded');
         pendingPwm = v;
       });
     }
-    if (applyBtn) applyBtn.addEventListener('click', ()=>{ setEditingPwm(false); setEditingMode(true); sendSpeedControl(); });
+    if (applyBtn) applyBtn.addEventListener('click', ()=>{ setEditingPwm(false); setEditingMode(true); sendSpeedSoon(); });
 
     const clamp = (v, lo, hi)=> Math.max(lo, Math.min(hi, v));
     function syncCpu(v){
@@ -513,7 +594,7 @@ console.log('[fan] fan.js loaded');
     if (gpuThRange) gpuThRange.addEventListener('input', ()=>{ setEditingTemp(true); syncGpu(gpuThRange.value); pendingGpu = Number(gpuThRange.value); });
     if (gpuThNum)   gpuThNum.addEventListener('input',   ()=>{ setEditingTemp(true); syncGpu(gpuThNum.value);   pendingGpu = Number(gpuThNum.value);   });
 
-    if (applyTempBtn) applyTempBtn.addEventListener('click', ()=>{ setEditingTemp(false); setEditingMode(true); sendTempControl(); });
+    if (applyTempBtn) applyTempBtn.addEventListener('click', ()=>{ setEditingTemp(false); setEditingMode(true); sendTempSoon(); });
 
     // 시작: 섹션 토글 후 WS 연결만 시도
     updateVisibility();
@@ -0,0 +1,79 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.AlertService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlertControllerTest {
+
+    private final List<Message<?>> toClient = new CopyOnWriteArrayList<>();
+
+    @Test
+    void subscribingToAppDestinationReturnsActiveAlerts() {
+        AlertService alerts = mock(AlertService.class);
+        when(alerts.active()).thenReturn(List.of(new AlertService.AlertEvent("cpu-over-threshold", "bridge", "FIRING", "warning",
+                "cpuTemp", 85, 80.0, 1_760_000_000_000L, "cpuTemp 85.0 > 80.0 for 30s")));
+        SimpAnnotationMethodMessageHandler handler = handler(new AlertController(alerts));
+
+        handler.handleMessage(subscribe("/ws/alerts"));
+
+        assertEquals(1, toClient.size());
+        SimpMessageHeaderAccessor reply = SimpMessageHeaderAccessor.wrap(toClient.get(0));
+        assertEquals("s1", reply.getSessionId());
+        assertEquals("sub-1", reply.getSubscriptionId());
+        String body = new String((byte[]) toClient.get(0).getPayload(), StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("[") && body.contains("\"rule\":\"cpu-over-threshold\""), body);
+    }
+
+    @Test
+    void brokerTopicIsNotHandledByTheController() {
+        SimpAnnotationMethodMessageHandler handler = handler(new AlertController(mock(AlertService.class)));
+        handler.handleMessage(subscribe(AlertService.TOPIC));
+        assertEquals(0, toClient.size());
+    }
+
+    // WebSocketConfig 와 같은 앱 prefix(/ws)로 구성한 어노테이션 핸들러, 클라이언트로 가는 메시지는 toClient 에 모음
+    private SimpAnnotationMethodMessageHandler handler(AlertController controller) {
+        GenericApplicationContext ctx = new GenericApplicationContext();
+        ctx.registerBean(AlertController.class, () -> controller);
+        ctx.refresh();
+        SubscribableChannel inbound = new ExecutorSubscribableChannel();
+        SubscribableChannel outbound = new ExecutorSubscribableChannel();
+        outbound.subscribe(toClient::add);
+        SimpAnnotationMethodMessageHandler handler = new SimpAnnotationMethodMessageHandler(inbound, outbound,
+                new SimpMessagingTemplate(new ExecutorSubscribableChannel()));
+        handler.setDestinationPrefixes(List.of("/ws"));
+        handler.setMessageConverter(new MappingJackson2MessageConverter());
+        handler.setApplicationContext(ctx);
+        handler.afterPropertiesSet();
+        return handler;
+    }
+
+    private static Message<byte[]> subscribe(String destination) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        h.setSessionId("s1");
+        h.setSubscriptionId("sub-1");
+        h.setDestination(destination);
+        h.setSessionAttributes(new HashMap<>());
+        return MessageBuilder.createMessage(new byte[0], h.getMessageHeaders());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JdbcSessionRepositoryTest {
+
+    private static final long T0 = 1_760_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(T0);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbc = jdbc();
+    private final JdbcSessionRepository repository = repository(registry);
+
+    @Test
+    void savedSessionIsVisibleToAnotherInstance() {
+        MapSession s = newSession();
+        s.setAttribute("userId", 7L);
+        s.setAttribute("role", "ADMIN");
+        repository.save(s);
+
+        // 캐시가 없는 다른 인스턴스도 DB 에서 읽음
+        MapSession other = repository(new SimpleMeterRegistry()).findById(s.getId());
+        assertNotNull(other);
+        assertEquals(7L, (Long) other.getAttribute("userId"));
+        assertEquals("ADMIN", other.getAttribute("role"));
+    }
+
+    @Test
+    void unchangedRequestsOnlyTouchInBatches() {
+        MapSession s = newSession();
+        s.setAttribute("username", "hong");
+        repository.save(s);
+
+        for (int i = 1; i <= 5; i++) {
+            now.set(T0 + i * 1000L);
+            MapSession loaded = repository.findById(s.getId());
+            loaded.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+            repository.save(loaded);
+        }
+        // 요청마다 DB 를 읽거나 쓰지 않음: 첫 저장 1회, 조회는 모두 캐시
+        assertEquals(1.0, registry.get("fan.session.writes").tag("kind", "full").counter().count());
+        assertEquals(5, registry.get("fan.session.lookup").tag("cache", "hit").timer().count());
+        assertEquals(T0, lastAccessed(s.getId()));
+
+        repository.flushTouches();
+        assertEquals(T0 + 5000, lastAccessed(s.getId()));
+        assertEquals(1.0, registry.get("fan.session.writes").tag("kind", "touch").counter().count());
+    }
+
+    @Test
+    void expiredSessionsAreSweptTogether() {
+        MapSession a = newSession();
+        MapSession b = newSession();
+        repository.save(a);
+        repository.save(b);
+
+        now.set(T0 + Duration.ofMinutes(31).toMillis());
+        repository.cleanupExpired();
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM app_sessions", Integer.class));
+        assertEquals(2.0, registry.get("fan.session.expired").counter().count());
+        assertNull(repository.findById(a.getId()));
+    }
+
+    @Test
+    void changedSessionIdReplacesRow() {
+        MapSession s = newSession();
+        s.setAttribute("username", "kim");
+        repository.save(s);
+        String oldId = s.getId();
+
+        MapSession loaded = repository.findById(oldId);
+        loaded.changeSessionId();
+        repository.save(loaded);
+
+        assertNull(repository.findById(oldId));
+        assertEquals("kim", repository.findById(loaded.getId()).getAttribute("username"));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM app_sessions", Integer.class));
+    }
+
+    private MapSession newSession() {
+        MapSession s = repository.createSession();
+        s.setCreationTime(Instant.ofEpochMilli(now.get()));
+        s.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+        return s;
+    }
+
+    private long lastAccessed(String id) {
+        return jdbc.queryForObject("SELECT last_accessed_at FROM app_sessions WHERE id = ?", Long.class, id);
+    }
+
+    private JdbcSessionRepository repository(SimpleMeterRegistry meterRegistry) {
+        return new JdbcSessionRepository(jdbc, Duration.ofMinutes(30), 60_000, meterRegistry, now::get);
+    }
+
+    private static JdbcTemplate jdbc() {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:session-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+        return new JdbcTemplate(ds);
+    }
+}
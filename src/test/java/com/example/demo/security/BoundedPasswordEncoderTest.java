@@ -0,0 +1,92 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    // "{x}" + 원문 으로 인코딩, "block" 은 release 될 때까지 대기
+    private final PasswordEncoder delegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            return "{x}" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            if ("block".contentEquals(raw)) {
+                started.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return encoded.equals(encode(raw));
+        }
+    };
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (encoder != null) encoder.destroy();
+    }
+
+    @Test
+    void delegatesOnTheHashPool() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, 1_000);
+        assertEquals("{x}pw", encoder.encode("pw"));
+        assertTrue(encoder.matches("pw", "{x}pw"));
+        assertFalse(encoder.matches("pw", "{x}other"));
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 10_000);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("block", "{x}block"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "{x}pw"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (encoder.queuedTasks() < 1 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(1, encoder.queuedTasks());
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> encoder.matches("pw", "{x}pw"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000, "saturated pool should reject without waiting");
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timeoutRejectsAndInterruptsTheHash() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, 100);
+        long start = System.nanoTime();
+        RejectedExecutionException e = assertThrows(RejectedExecutionException.class, () -> encoder.matches("block", "{x}block"));
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(e.getMessage().contains("timed out"), e.getMessage());
+        assertTrue(took >= 90 && took < 2_000, "expected to wait about waitMillis, took " + took);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "timed-out hash should be cancelled");
+
+        // 풀은 다시 쓸 수 있음
+        assertTrue(encoder.matches("pw", "{x}pw"));
+    }
+}
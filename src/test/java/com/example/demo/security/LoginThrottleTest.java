@@ -0,0 +1,110 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final LoginThrottle throttle = new LoginThrottle(3, 5, WINDOW, now::get);
+
+    @Test
+    void userLimitHoldsForTheWindow() {
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+        assertFalse(throttle.tryAcquire("hong", "10.0.0.2"));
+        assertFalse(throttle.tryAcquire("HONG", "10.0.0.3")); // 대소문자 무시
+
+        now.addAndGet(WINDOW - 1);
+        assertFalse(throttle.tryAcquire("hong", "10.0.0.1"));
+        now.addAndGet(1);
+        assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+    }
+
+    @Test
+    void ipLimitCoversManyUsernamesAndRefundsTheUserSlot() {
+        for (int i = 0; i < 5; i++) assertTrue(throttle.tryAcquire("user" + i, "10.0.0.1"));
+        assertFalse(throttle.tryAcquire("victim", "10.0.0.1"));
+
+        // IP 한도로 거절된 시도는 사용자 한도를 쓰지 않음
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("victim", "10.0.0.2"));
+    }
+
+    @Test
+    void successResetsUserAndReturnsTheIpAttempt() {
+        assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+        throttle.onSuccess("hong", "10.0.0.1");
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+
+        // IP 는 6번 시도 중 성공 1번만 빠져 5번 → 같은 IP 의 다른 사용자는 한도 도달
+        assertFalse(throttle.tryAcquire("kim", "10.0.0.1"));
+    }
+
+    @Test
+    void releaseDoesNotCountAsFailure() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+            throttle.release("hong", "10.0.0.1");
+        }
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+    }
+
+    @Test
+    void unknownIpDoesNotShareABucket() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire("a" + i, null));
+        }
+        assertTrue(throttle.tryAcquire("other", null));
+        // 사용자 한도는 그대로
+        for (int i = 0; i < 2; i++) assertTrue(throttle.tryAcquire("other", null));
+        assertFalse(throttle.tryAcquire("other", null));
+    }
+
+    @Test
+    void concurrentAttemptsNeverExceedTheLimit() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        try {
+            for (int i = 0; i < 200; i++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (throttle.tryAcquire("hong", "10.0.0.1")) allowed.incrementAndGet();
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(3, allowed.get());
+    }
+
+    @Test
+    void purgeDropsExpiredWindows() {
+        assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+        now.addAndGet(WINDOW);
+        throttle.purgeExpired();
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("hong", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.security;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthInterceptorTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("0123456789abcdef0123456789abcdef-test-secret", 60_000);
+    private final UserRepository users = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StompAuthInterceptor interceptor = new StompAuthInterceptor(jwtUtil, users, registry);
+
+    @Test
+    void bearerTokenBindsPrincipalOnConnect() {
+        when(users.findByUsername("admin")).thenReturn(Optional.of(new User()));
+        Principal user = connect("Bearer " + jwtUtil.generateToken("admin", "ADMIN"), null);
+
+        StompPrincipal p = (StompPrincipal) user;
+        assertEquals("admin", p.getName());
+        assertTrue(p.admin());
+    }
+
+    @Test
+    void invalidTokenRejectsConnect() {
+        assertThrows(MessagingException.class, () -> connect("Bearer not-a-jwt", null));
+        assertEquals(1.0, registry.get("fan.auth.failures").tag("reason", "jwt_invalid").counter().count());
+
+        when(users.findByUsername(anyString())).thenReturn(Optional.empty());
+        assertThrows(MessagingException.class, () -> connect("Bearer " + jwtUtil.generateToken("ghost", "ADMIN"), null));
+    }
+
+    @Test
+    void withoutTokenFallsBackToHandshakeSession() {
+        StompPrincipal p = (StompPrincipal) connect(null, Map.of("username", "kim", "role", "USER"));
+        assertEquals("kim", p.getName());
+        assertFalse(p.admin());
+
+        assertNull(connect(null, Map.of()));
+    }
+
+    @Test
+    void authenticatedHandshakeIgnoresExpiredToken() {
+        // 페이지 로드 때 받은 토큰이 만료된 뒤의 재연결: HTTP 세션이 살아 있으면 그대로 연결
+        String expired = new JwtUtil("0123456789abcdef0123456789abcdef-test-secret", -60_000).generateToken("kim", "ADMIN");
+        StompPrincipal p = (StompPrincipal) connect("Bearer " + expired, Map.of("username", "kim", "role", "ADMIN"));
+        assertEquals("kim", p.getName());
+        assertTrue(p.admin());
+        assertEquals(0.0, registry.get("fan.auth.failures").tag("reason", "jwt_invalid").counter().count());
+
+        // 세션이 없으면 만료된 토큰은 거절
+        assertThrows(MessagingException.class, () -> connect("Bearer " + expired, null));
+    }
+
+    private Principal connect(String authorization, Map<String, Object> sessionAttributes) {
+        StompHeaderAccessor h = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) h.addNativeHeader("Authorization", authorization);
+        h.setSessionId("s1");
+        h.setSessionAttributes(sessionAttributes == null ? new HashMap<>() : new HashMap<>(sessionAttributes));
+        h.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], h.getMessageHeaders());
+        Message<?> out = interceptor.preSend(message, null);
+        return StompHeaderAccessor.wrap(out).getUser();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlertServiceTest {
+
+    private static final long T0 = 1_760_000_000_000L;
+
+    private final List<Message<?>> published = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null,
+            registry, new TelemetryLatencyRecorder(registry));
+
+    @Test
+    void thresholdRuleNeedsSustainAndClearsWithHysteresis() {
+        AlertService alerts = alerts(new AlertProperties.Rule("cpu-hot", AlertProperties.Kind.ABOVE, "cpuTemp", null, "cpuThreshold",
+                Duration.ofSeconds(30), 2, 0, 1, Duration.ofMinutes(5), "warning", Duration.ZERO));
+
+        // 임계값(기본 60) 초과 29초까지는 발생하지 않음
+        for (int s = 0; s < 30; s++) alerts.evaluate(Map.of("cpuTemp", 65), T0 + s * 1000L);
+        assertEquals(0, published.size());
+        alerts.evaluate(Map.of("cpuTemp", 65), T0 + 30_000);
+        assertEquals(1, published.size());
+        assertEquals(1, alerts.active().size());
+
+        // 계속 초과해도 중복 발행 없음, 59 는 히스테리시스(2) 안쪽이라 해제되지 않음
+        for (int s = 31; s < 40; s++) alerts.evaluate(Map.of("cpuTemp", 66), T0 + s * 1000L);
+        alerts.evaluate(Map.of("cpuTemp", 59), T0 + 40_000);
+        assertEquals(1, published.size());
+
+        alerts.evaluate(Map.of("cpuTemp", 58), T0 + 41_000);
+        assertEquals(2, published.size());
+        assertTrue(alerts.active().isEmpty());
+        assertEquals(1.0, registry.get("fan.alerts.events").tag("state", "RESOLVED").counter().count());
+    }
+
+    @Test
+    void countRuleFiresOnNthMatchWithinWindow() {
+        AlertService alerts = alerts(new AlertProperties.Rule("abnormal", AlertProperties.Kind.COUNT, "model_result", null, null,
+                Duration.ZERO, 0, 0, 3, Duration.ofMinutes(5), "critical", Duration.ZERO));
+
+        alerts.evaluate(Map.of("model_result", 0), T0);
+        alerts.evaluate(Map.of("model_result", 1), T0 + 60_000);
+        alerts.evaluate(Map.of("model_result", 0), T0 + 120_000);
+        assertEquals(0, published.size());
+        // 세 번째 이상 판정이 첫 번째로부터 5분을 넘기면 발생하지 않음
+        alerts.evaluate(Map.of("model_result", 0), T0 + 301_000);
+        assertEquals(0, published.size());
+        alerts.evaluate(Map.of("model_result", 0), T0 + 310_000);
+        assertEquals(1, published.size());
+
+        // 5분 동안 이상 판정이 없으면 해제
+        alerts.evaluate(Map.of("model_result", 1), T0 + 611_000);
+        assertEquals(2, published.size());
+    }
+
+    private AlertService alerts(AlertProperties.Rule rule) {
+        SimpMessagingTemplate broker = new SimpMessagingTemplate((message, timeout) -> published.add(message));
+        return new AlertService(bridge, broker, new AlertProperties(List.of(rule)), registry);
+    }
+}
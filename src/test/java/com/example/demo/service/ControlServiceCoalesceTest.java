@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 제어 명령 합치기: 같은 호출자의 같은 종류 명령만 마지막 것으로 합치고, 다른 종류는 모두 적용
+ */
+class ControlServiceCoalesceTest {
+
+    private static final long INTERVAL = 250;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+    private final FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null, registry, latency);
+    private final TelemetryService telemetry = new TelemetryService(bridge, new ObjectMapper(), registry, latency,
+            new TelemetryStatsService(bridge), TelemetryDeadband.NONE);
+    private final TelemetryTierService tiers = new TelemetryTierService(new SimpMessagingTemplate((message, timeout) -> true),
+            telemetry, bridge, new StompSubscriptionTracker(registry), registry);
+    private final TelemetryJournal journal = new TelemetryJournal(bridge, false, "unused", 4096, 1, registry);
+    private final ControlService control = new ControlService(bridge, telemetry, tiers, journal, registry, INTERVAL);
+
+    @AfterEach
+    void stop() {
+        control.stop();
+    }
+
+    @Test
+    void tempThenSpeedInsideWindowAppliesBoth() throws Exception {
+        List<CompletableFuture<ControlService.Result>> results = List.of(
+                control.submit(speed(40), true, "ws", "s1"),
+                control.submit(temp(70, 65), true, "ws", "s1"),
+                // 간격 안: 종류별로 보류, 같은 종류는 마지막 것으로 합침
+                control.submit(temp(72, 68), true, "ws", "s1"),
+                control.submit(speed(55), true, "ws", "s1"),
+                control.submit(temp(75, 71), true, "ws", "s1"),
+                control.submit(speed(80), true, "ws", "s1"));
+        for (CompletableFuture<ControlService.Result> r : results) r.get(5, TimeUnit.SECONDS);
+
+        ControlState s = bridge.getControlState();
+        assertTrue(s.manual());
+        assertEquals(80, s.manualPwm());
+        assertEquals(75, s.cpuThreshold());
+        assertEquals(71, s.gpuThreshold());
+        // 즉시 2건 + 종류별 보류 1건씩
+        assertEquals(4, s.version());
+        assertEquals(2.0, registry.get("fan.control.coalesced").counter().count());
+    }
+
+    @Test
+    void otherCallersAreNotCoalesced() throws Exception {
+        control.submit(temp(70, 65), true, "ws", "s1").get(5, TimeUnit.SECONDS);
+        control.submit(temp(80, 80), true, "ws", "s2").get(5, TimeUnit.SECONDS);
+        assertEquals(2, bridge.getControlState().version());
+        assertEquals(80, bridge.getControlState().cpuThreshold());
+    }
+
+    private static ControlCommand speed(int pwm) {
+        return new ControlCommand(ControlCommand.Dimension.SPEED, true, pwm, 0, 0);
+    }
+
+    private static ControlCommand temp(int cpu, int gpu) {
+        return new ControlCommand(ControlCommand.Dimension.TEMP, false, 0, cpu, gpu);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ControlStateConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int COMMANDS_PER_WRITER = 20_000;
+
+    /**
+     * 쓰기 스레드는 cpu == gpu 인 TEMP 명령과 MANUAL 명령을 번갈아 보냅니다.
+     * 필드를 하나씩 쓰면 읽는 쪽이 cpu != gpu 인 중간 상태를 볼 수 있으므로, 이런 읽기가 한 번도 없어야 합니다.
+     */
+    @Test
+    void readersNeverSeeTornState() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null,
+                registry, new TelemetryLatencyRecorder(registry));
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                int seed = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < COMMANDS_PER_WRITER; i++) {
+                        int v = (seed * 31 + i) % 100;
+                        if (i % 2 == 0) bridge.applyLocalControl(new ControlCommand(ControlCommand.Dimension.TEMP, false, 0, v, v));
+                        else bridge.applyLocalControl(new ControlCommand(ControlCommand.Dimension.SPEED, true, v, 0, 0));
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < READERS; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    long lastVersion = 0;
+                    while (writing.get() && torn.get() == null) {
+                        ControlState s = bridge.getControlState();
+                        if (s.version() < lastVersion) torn.compareAndSet(null, "version went back: " + s);
+                        if (s.cpuThreshold() != s.gpuThreshold()) torn.compareAndSet(null, "state: " + s);
+                        lastVersion = s.version();
+
+                        Map<String, Object> ui = bridge.getCachedUiTelemetry();
+                        if (!ui.get("cpuThreshold").equals(ui.get("gpuThreshold"))) torn.compareAndSet(null, "snapshot: " + ui);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : writers) f.get(60, TimeUnit.SECONDS);
+            writing.set(false);
+            for (Future<?> f : readers) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertNull(torn.get());
+        // CAS 재시도로 갱신이 하나도 유실되지 않아야 함
+        assertEquals((long) WRITERS * COMMANDS_PER_WRITER, bridge.getControlState().version());
+    }
+
+    @Test
+    void manualCommandCarriesItsOwnPwm() {
+        ControlState s = ControlState.INITIAL
+                .apply(new ControlCommand(ControlCommand.Dimension.SPEED, true, 75, 0, 0))
+                .apply(new ControlCommand(ControlCommand.Dimension.TEMP, false, 0, 70, 65));
+        assertEquals("MANUAL", s.mode());
+        assertEquals(75, s.manualPwm());
+        assertEquals(70, s.cpuThreshold());
+        assertEquals(65, s.gpuThreshold());
+        assertEquals(2, s.version());
+
+        ControlState auto = s.apply(new ControlCommand(ControlCommand.Dimension.SPEED, false, 0, 0, 0));
+        assertEquals("AUTOMATIC", auto.mode());
+        assertEquals(75, auto.manualPwm());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 응답하지 않는 Influx 스텁 서버로 타임아웃 + 회로 차단기 동작 확인
+ * - 실패 임계값까지만 읽기 타임아웃만큼 기다리고, 그 뒤 조회는 Influx 를 기다리지 않음
+ * - 텔레메트리 푸시(publishLocal)는 Influx 조회와 분리되어 조회가 걸려 있는 동안에도 바로 끝남
+ * - OPEN 시간이 지나면 시험 호출 한 번으로 복구, 시험 호출이 취소되면 HALF_OPEN 그대로
+ */
+class InfluxServiceCircuitBreakerTest {
+
+    private static final long READ_TIMEOUT_MILLIS = 300;
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean hang = new AtomicBoolean(true);
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                if (hang.get()) release.await(30, TimeUnit.SECONDS);
+                // 빈 annotated CSV = 결과 테이블 없음
+                exchange.getResponseHeaders().add("Content-Type", "text/csv; charset=utf-8");
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void breakerStopsWaitingAfterThreshold() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(60_000, registry);
+        try {
+            // 임계값까지는 타임아웃만큼 걸림
+            for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+                long took = timeMillis(influx::latestTemps);
+                assertTrue(took >= READ_TIMEOUT_MILLIS / 2, "expected a timed-out query, took " + took);
+                assertTrue(took < READ_TIMEOUT_MILLIS * 5, "query not bounded by timeout, took " + took);
+            }
+            assertEquals(CircuitBreaker.State.OPEN, influx.breakerState());
+            assertEquals(2.0, registry.get("fan.influx.breaker.state").tag("pool", "live").gauge().value());
+
+            // 이후 조회는 Influx 를 기다리지 않음
+            for (int i = 0; i < 20; i++) {
+                long took = timeMillis(influx::latestTemps);
+                assertTrue(took < 50, "query blocked on open breaker for " + took + "ms");
+            }
+            assertEquals(20.0, registry.get("fan.influx.breaker.rejected").tag("pool", "live").counter().count());
+            assertEquals(FAILURE_THRESHOLD, registry.get("fan.influx.query").tag("outcome", "error").timer().count());
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    @Test
+    void pushesKeepCadenceWhileInfluxHangs() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(60_000, registry);
+        TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+        FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, influx, registry, latency);
+        TelemetryService telemetry = new TelemetryService(bridge, new ObjectMapper(), registry, latency, new TelemetryStatsService(bridge), TelemetryDeadband.NONE);
+        bridge.start(); // Influx 캐시 갱신은 브리지의 전용 스레드에서
+        try {
+            // 갱신 스레드가 타임아웃을 기다리는 동안에도 푸시(publishLocal)는 캐시만 읽음
+            long deadline = System.currentTimeMillis() + 10_000;
+            int pushes = 0;
+            while (influx.breakerState() != CircuitBreaker.State.OPEN && System.currentTimeMillis() < deadline) {
+                bridge.handleFrame("{\"cpuTemp\":" + (60 + pushes % 10) + ",\"gpuTemp\":40,\"pwm_value\":30}");
+                long took = timeMillis(telemetry::publishLocal);
+                assertTrue(took < 50, "push blocked on Influx for " + took + "ms");
+                pushes++;
+                Thread.sleep(20);
+            }
+            assertEquals(CircuitBreaker.State.OPEN, influx.breakerState());
+            assertTrue(pushes >= 5, "expected pushes while Influx timed out, got " + pushes);
+            assertEquals(FAILURE_THRESHOLD, registry.get("fan.influx.query").tag("outcome", "error").timer().count());
+        } finally {
+            bridge.stop();
+            influx.destroy();
+        }
+    }
+
+    @Test
+    void halfOpenProbeClosesBreakerWhenInfluxRecovers() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(200, registry);
+        try {
+            for (int i = 0; i < FAILURE_THRESHOLD; i++) influx.latestTemps();
+            assertEquals(CircuitBreaker.State.OPEN, influx.breakerState());
+
+            hang.set(false);
+            release.countDown();
+            Thread.sleep(250);
+            influx.latestTemps();
+            assertEquals(CircuitBreaker.State.CLOSED, influx.breakerState());
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    @Test
+    void interruptedHalfOpenProbeKeepsBreakerHalfOpen() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(200, registry);
+        try {
+            for (int i = 0; i < FAILURE_THRESHOLD; i++) influx.latestTemps();
+            assertEquals(CircuitBreaker.State.OPEN, influx.breakerState());
+            Thread.sleep(250);
+
+            // 시험 호출 도중 호출자가 끊음: Influx 가 응답한 적이 없으므로 CLOSED 가 되면 안 됨
+            Thread probe = new Thread(influx::latestTemps, "probe");
+            probe.start();
+            Thread.sleep(100);
+            probe.interrupt();
+            probe.join(5_000);
+            assertEquals(CircuitBreaker.State.HALF_OPEN, influx.breakerState());
+            assertEquals(1, registry.get("fan.influx.query").tag("outcome", "cancelled").timer().count());
+
+            // 시험 슬롯은 반납되어 다음 호출이 다시 시험함 (여전히 응답 없음 → OPEN)
+            influx.latestTemps();
+            assertEquals(CircuitBreaker.State.OPEN, influx.breakerState());
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    private InfluxService influx(long openMillis, MeterRegistry registry) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new InfluxService(url, "test-token", "HANBAT", "TEMPER",
+                200, READ_TIMEOUT_MILLIS, FAILURE_THRESHOLD, openMillis, 60_000, 2, registry);
+    }
+
+    private static long timeMillis(Runnable r) {
+        long start = System.nanoTime();
+        r.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
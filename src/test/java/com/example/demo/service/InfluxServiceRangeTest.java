@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * annotated CSV 를 돌려주는 Influx 스텁 서버로 이력/내보내기 스트리밍 확인
+ * - 레코드를 도착 순서대로 넘기고, sink 가 false 를 돌려주면 서버가 응답을 끝내지 않아도 바로 취소
+ * - range 조회 실패는 range 회로 차단기만 열고, 최근 값(live) 조회는 그대로
+ */
+class InfluxServiceRangeTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger rows = new AtomicInteger(3);
+    private final AtomicBoolean hangAfterRows = new AtomicBoolean(false);
+    private final AtomicBoolean hangRange = new AtomicBoolean(false);
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/csv; charset=utf-8");
+                if (body.contains("-7d")) {
+                    // 최근 값 조회: 결과 테이블 없음
+                    exchange.sendResponseHeaders(200, -1);
+                } else if (hangRange.get()) {
+                    release.await(30, TimeUnit.SECONDS);
+                } else {
+                    writeRows(exchange);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException ignored) {
+                // 클라이언트가 취소하고 연결을 닫음
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void historyAndExportStreamAnnotatedCsv() {
+        InfluxService influx = influx(5_000, new SimpleMeterRegistry());
+        try {
+            InfluxService.Series series = influx.history("cpu_temperature", Duration.ofHours(1), 300).orElseThrow();
+            assertArrayEquals(new long[]{T0.toEpochMilli(), T0.toEpochMilli() + 1000, T0.toEpochMilli() + 2000}, series.times());
+            assertArrayEquals(new double[]{45.5, 46.0, 46.5}, series.values());
+
+            List<Double> exported = new ArrayList<>();
+            long count = influx.export("cpu_temperature", T0, T0.plusSeconds(60), (t, v) -> exported.add(v));
+            assertEquals(3, count);
+            assertEquals(List.of(45.5, 46.0, 46.5), exported);
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    @Test
+    void sinkCancelStopsExportWithoutWaitingForServer() {
+        rows.set(5);
+        hangAfterRows.set(true);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(5_000, registry);
+        try {
+            List<Double> exported = new ArrayList<>();
+            long start = System.nanoTime();
+            long count = influx.export("cpu_temperature", T0, T0.plusSeconds(60), (t, v) -> {
+                exported.add(v);
+                return exported.size() < 2;
+            });
+            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(2, count);
+            assertEquals(List.of(45.5, 46.0), exported);
+            assertTrue(took < 2_000, "cancelled export waited for the server, took " + took);
+            assertEquals(CircuitBreaker.State.CLOSED, influx.rangeBreakerState());
+            assertEquals(1, registry.get("fan.influx.query").tag("query", "export").tag("outcome", "success").timer().count());
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    @Test
+    void rangeFailuresDoNotOpenLiveBreaker() {
+        hangRange.set(true);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InfluxService influx = influx(300, registry);
+        try {
+            for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+                assertTrue(influx.history("cpu_temperature", Duration.ofHours(1), 300).isEmpty());
+            }
+            assertEquals(CircuitBreaker.State.OPEN, influx.rangeBreakerState());
+            assertFalse(influx.rangeAvailable());
+            assertEquals(-1, influx.export("cpu_temperature", T0, T0.plusSeconds(60), (t, v) -> true));
+            assertEquals(1.0, registry.get("fan.influx.breaker.rejected").tag("pool", "range").counter().count());
+            assertEquals(2.0, registry.get("fan.influx.breaker.state").tag("pool", "range").gauge().value());
+
+            // 최근 값 조회는 별도 클라이언트/차단기라 영향 없음
+            assertEquals(Map.of(), influx.latestTemps());
+            assertEquals(CircuitBreaker.State.CLOSED, influx.breakerState());
+            assertEquals(0.0, registry.get("fan.influx.breaker.state").tag("pool", "live").gauge().value());
+            assertEquals(1, registry.get("fan.influx.query").tag("query", "latest").tag("outcome", "success").timer().count());
+        } finally {
+            influx.destroy();
+        }
+    }
+
+    // cpu_temperature 값 45.5 부터 0.5 씩, 1초 간격
+    private void writeRows(HttpExchange exchange) throws IOException, InterruptedException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        StringBuilder csv = new StringBuilder()
+                .append("#datatype,string,long,dateTime:RFC3339,double\n")
+                .append("#group,false,false,false,false\n")
+                .append("#default,_result,,,\n")
+                .append(",result,table,_time,_value\n");
+        for (int i = 0; i < rows.get(); i++) {
+            csv.append(",,0,").append(T0.plusSeconds(i)).append(',').append(45.5 + i * 0.5).append('\n');
+        }
+        out.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        if (hangAfterRows.get()) release.await(30, TimeUnit.SECONDS);
+    }
+
+    private InfluxService influx(long exportTimeoutMillis, MeterRegistry registry) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new InfluxService(url, "test-token", "HANBAT", "TEMPER",
+                200, 1_000, FAILURE_THRESHOLD, 60_000, exportTimeoutMillis, 2, registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TelemetryDeadbandTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+    private final FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null, registry, latency);
+
+    @Test
+    void jitterInsideDeadbandKeepsVersion() {
+        TelemetryService telemetry = telemetry(new TelemetryDeadband(1, 1, 2, 60_000));
+
+        long v1 = publish(telemetry, 61.9, 40);
+        // 정수 스냅샷은 61 → 62 로 바뀌지만 원래 값은 0.1 만 움직임
+        assertEquals(v1, publish(telemetry, 62.0, 40));
+        assertEquals(v1, publish(telemetry, 61.5, 41));
+        // 마지막 발행 값(61.9)에서 1 이상
+        long v2 = publish(telemetry, 63.0, 40);
+        assertEquals(v1 + 1, v2);
+        assertEquals(2.0, registry.get("fan.telemetry.deadband.suppressed").counter().count());
+
+        // 데드밴드와 무관한 항목(제어 상태)이 바뀌면 바로 발행
+        bridge.applyLocalControl(ControlCommand.from(Map.of("mode", "MANUAL", "pwm", 55)));
+        assertEquals(v2 + 1, telemetry.publishLocal().version());
+    }
+
+    @Test
+    void maxSilenceFlushesSmallDrift() throws Exception {
+        TelemetryService telemetry = telemetry(new TelemetryDeadband(1, 1, 2, 50));
+
+        long v1 = publish(telemetry, 50.2, 30);
+        assertEquals(v1, publish(telemetry, 50.6, 30)); // 같은 정수값, 내용 동일
+        Thread.sleep(60);
+        assertEquals(v1, publish(telemetry, 50.8, 30)); // 정수값이 같으면 침묵이 길어도 새 버전 없음
+        assertEquals(v1 + 1, publish(telemetry, 51.1, 30)); // 0.9 움직임이지만 maxSilence 경과
+    }
+
+    private long publish(TelemetryService telemetry, double cpu, int pwm) {
+        bridge.handleFrame("{\"cpuTemp\":" + cpu + ",\"gpuTemp\":40,\"pwm_value\":" + pwm + ",\"model_result\":1}");
+        return telemetry.publishLocal().version();
+    }
+
+    private TelemetryService telemetry(TelemetryDeadband deadband) {
+        return new TelemetryService(bridge, new ObjectMapper(), registry, latency, new TelemetryStatsService(bridge), deadband);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.influxdb.client.write.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryIngestServiceTest {
+
+    private static final long T0 = 1_760_000_000_000L;
+
+    @Test
+    void fieldTypeIsFixedPerMeasurement() {
+        // 같은 측정값이 정수로 오든 실수로 오든 필드 타입은 같아야 함
+        String intCpu = line(TelemetryIngestService.toPoints(Map.of("cpuTemp", 45), T0), "cpu_temperature");
+        String floatCpu = line(TelemetryIngestService.toPoints(Map.of("cpuTemp", 45.5), T0), "cpu_temperature");
+        assertTrue(intCpu.matches("cpu_temperature,source=bridge value=45(\\.0)? " + T0), intCpu);
+        assertTrue(floatCpu.matches("cpu_temperature,source=bridge value=45\\.5 " + T0), floatCpu);
+
+        String intPwm = line(TelemetryIngestService.toPoints(Map.of("pwm_value", 30), T0), "fan_status");
+        assertTrue(intPwm.matches("fan_status,source=bridge pwm_duty_cycle=30(\\.0)? " + T0), intPwm);
+
+        // model_result 는 항상 정수 필드
+        String model = line(TelemetryIngestService.toPoints(Map.of("model_result", 1.0), T0), "model_result");
+        assertEquals("model_result,source=bridge value=1i " + T0, model);
+    }
+
+    @Test
+    void missingOrNonNumericValuesAreSkipped() {
+        List<Point> points = TelemetryIngestService.toPoints(Map.of("cpuTemp", "hot", "gpuTemp", Double.NaN, "pwm_value", 40), T0);
+        assertEquals(1, points.size());
+        assertTrue(points.get(0).toLineProtocol().startsWith("fan_status,"));
+    }
+
+    private static String line(List<Point> points, String measurement) {
+        assertEquals(1, points.size());
+        String line = points.get(0).toLineProtocol();
+        assertTrue(line.startsWith(measurement + ","), line);
+        return line;
+    }
+}
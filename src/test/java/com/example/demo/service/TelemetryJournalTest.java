@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TelemetryJournalTest {
+
+    @TempDir
+    Path dir;
+
+    /** 프레임/제어 상태를 기록한 뒤 새 인스턴스(재시작)가 마지막 값으로 시작하는지 */
+    @Test
+    void restartRestoresLastFrameAndControlState() {
+        FanBridgeService bridge = bridge();
+        TelemetryJournal journal = journal(bridge, 4096, 48);
+        journal.start();
+        for (int i = 0; i < 10; i++) {
+            bridge.handleFrame("{\"cpuTemp\":" + (50 + i) + ".5,\"gpuTemp\":40,\"pwm_value\":33,\"model_result\":1}");
+        }
+        journal.appendControl(bridge.applyLocalControl(ControlCommand.from(Map.of("dimension", "TEMP", "cpuThreshold", 70, "gpuThreshold", 65))));
+        journal.stop();
+
+        FanBridgeService restarted = bridge();
+        TelemetryJournal reopened = journal(restarted, 4096, 48);
+        reopened.start();
+        try {
+            Map<String, Object> ui = restarted.getCachedUiTelemetry();
+            assertEquals(59, ui.get("cpuTemp"));
+            assertEquals(40, ui.get("gpuTemp"));
+            assertEquals(33, ui.get("actualPwm"));
+            assertEquals(70, ui.get("cpuThreshold"));
+            assertEquals(65, ui.get("gpuThreshold"));
+            assertEquals("MANUAL", ui.get("mode"));
+            assertEquals(1, restarted.getControlState().version());
+
+            InfluxService.Series cpu = reopened.history("cpu_temperature", Duration.ofMinutes(5), 1).orElseThrow();
+            assertEquals(1, cpu.values().length);
+            assertEquals(55.0, cpu.values()[0], 0.001); // 50.5 ~ 59.5 평균
+        } finally {
+            reopened.stop();
+        }
+    }
+
+    /** 동시 명령이 버전과 반대 순서로 기록돼도 버전이 가장 큰 제어 상태를 복원 */
+    @Test
+    void restoresHighestControlVersionRegardlessOfAppendOrder() {
+        FanBridgeService bridge = bridge();
+        TelemetryJournal journal = journal(bridge, 4096, 48);
+        journal.start();
+        ControlState first = bridge.applyLocalControl(ControlCommand.from(Map.of("dimension", "TEMP", "cpuThreshold", 70, "gpuThreshold", 65)));
+        ControlState second = bridge.applyLocalControl(ControlCommand.from(Map.of("dimension", "TEMP", "cpuThreshold", 80, "gpuThreshold", 75)));
+        journal.appendControl(second);
+        journal.appendControl(first);
+        journal.stop();
+
+        FanBridgeService restarted = bridge();
+        TelemetryJournal reopened = journal(restarted, 4096, 48);
+        reopened.start();
+        try {
+            assertEquals(second, restarted.getControlState());
+        } finally {
+            reopened.stop();
+        }
+    }
+
+    /** 세그먼트가 가득 차면 새 파일로 넘기고, 보존 기간이 지난 세그먼트는 지움 */
+    @Test
+    void rollsSegmentsAndPurgesExpired() throws IOException {
+        FanBridgeService bridge = bridge();
+        // 세그먼트당 4 레코드(제어 상태 1 + 샘플 3), 보존 0시간: 쓰는 중인 세그먼트와 직전 세그먼트만 남음
+        TelemetryJournal journal = journal(bridge, TelemetryJournal.RECORD_BYTES * 4, 0);
+        journal.start();
+        long base = System.currentTimeMillis() / 1000 - 36_000;
+        try {
+            for (int i = 0; i < 20; i++) {
+                bridge.handleFrame("{\"cpuTemp\":" + i + ",\"gpuTemp\":1,\"pwm_value\":2,\"ts\":" + (base + i) + "}");
+            }
+            assertEquals(2, segmentFiles());
+        } finally {
+            journal.stop();
+        }
+
+        FanBridgeService restarted = bridge();
+        TelemetryJournal reopened = journal(restarted, TelemetryJournal.RECORD_BYTES * 4, 48);
+        reopened.start();
+        try {
+            assertEquals(19, restarted.getCachedUiTelemetry().get("cpuTemp"));
+        } finally {
+            reopened.stop();
+        }
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static FanBridgeService bridge() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new FanBridgeService("ws://localhost:1", 3000, 1000, false, null, registry, new TelemetryLatencyRecorder(registry));
+    }
+
+    private TelemetryJournal journal(FanBridgeService bridge, int segmentBytes, long retentionHours) {
+        return new TelemetryJournal(bridge, true, dir.toString(), segmentBytes, retentionHours, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 스냅샷 커서 "<epoch>-<version>": 재시작(다른 인스턴스) 전 커서는 현재 버전과 같은 숫자여도 일치하지 않음
+ */
+class TelemetryServiceCursorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+    private final FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null, registry, latency);
+
+    private TelemetryService telemetry() {
+        return new TelemetryService(bridge, new ObjectMapper(), registry, latency, new TelemetryStatsService(bridge), TelemetryDeadband.NONE);
+    }
+
+    @Test
+    void cursorFromAnotherBootDoesNotMatch() {
+        TelemetryService before = telemetry();
+        TelemetryService after = telemetry();
+        bridge.handleFrame("{\"cpuTemp\":60,\"gpuTemp\":40,\"pwm_value\":30}");
+        TelemetryService.Snapshot a = before.publishLocal();
+        TelemetryService.Snapshot b = after.publishLocal();
+
+        assertEquals(a.version(), b.version());
+        assertNotEquals(before.cursorOf(a), after.cursorOf(b));
+        assertEquals(b.version(), after.versionOf(after.cursorOf(b)));
+        assertEquals(-1, after.versionOf(before.cursorOf(a)));
+        assertEquals(-1, after.versionOf(Long.toString(b.version())));
+    }
+
+    @Test
+    void awaitAfterWaitsOnlyForTheCurrentCursor() {
+        TelemetryService telemetry = telemetry();
+        bridge.handleFrame("{\"cpuTemp\":60,\"gpuTemp\":40,\"pwm_value\":30}");
+        TelemetryService.Snapshot s = telemetry.publishLocal();
+
+        // 현재 커서: 다음 버전까지 대기
+        CompletableFuture<TelemetryService.Snapshot> waiting = telemetry.awaitAfter(telemetry.cursorOf(s));
+        assertFalse(waiting.isDone());
+
+        // 재시작 전 커서 / 아직 없는 버전 / 형식이 다른 값: 바로 현재 스냅샷
+        assertSame(s, telemetry.awaitAfter(telemetry().cursorOf(s)).getNow(null));
+        assertSame(s, telemetry.awaitAfter(telemetry.cursorOf(s).replaceAll("-\\d+$", "-" + (s.version() + 40))).getNow(null));
+        assertSame(s, telemetry.awaitAfter("37").getNow(null));
+
+        bridge.handleFrame("{\"cpuTemp\":70,\"gpuTemp\":40,\"pwm_value\":30}");
+        TelemetryService.Snapshot next = telemetry.publishLocal();
+        assertTrue(waiting.isDone());
+        assertSame(next, waiting.getNow(null));
+    }
+}
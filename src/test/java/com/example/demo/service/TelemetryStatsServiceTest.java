@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TelemetryStatsServiceTest {
+
+    private static final long T0 = 1_760_000_000_000L;
+
+    @Test
+    void summarizesAndSlidesWindows() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TelemetryStatsService stats = new TelemetryStatsService(new FanBridgeService("ws://localhost:1", 3000, 1000, false,
+                null, registry, new TelemetryLatencyRecorder(registry)));
+
+        // 1초마다 cpu 41..100 (60개), pwm 은 항상 30
+        for (int i = 0; i < 60; i++) {
+            stats.accept(Map.of("cpuTemp", 41 + i, "pwm_value", 30), T0 + i * 1000L);
+        }
+        TelemetryStatsService.Summary cpu = stats.current(T0 + 59_000).get("1m").get("cpuTemp");
+        assertEquals(60, cpu.count());
+        assertEquals(41.0, cpu.min());
+        assertEquals(100.0, cpu.max());
+        assertEquals(70.5, cpu.avg());
+        assertEquals(70.0, cpu.p50());
+        assertEquals(94.0, cpu.p90());
+        assertEquals(30.0, stats.current(T0 + 59_000).get("5m").get("actualPwm").p99());
+        assertEquals(0, stats.current(T0 + 59_000).get("1m").get("gpuTemp").count());
+
+        // 샘플이 끊긴 채 30초 뒤: 1m 창은 앞 30초가 빠지고, 5m 창은 그대로
+        TelemetryStatsService.Summary later = stats.current(T0 + 89_000).get("1m").get("cpuTemp");
+        assertEquals(30, later.count());
+        assertEquals(71.0, later.min());
+        assertEquals(60, stats.current(T0 + 89_000).get("5m").get("cpuTemp").count());
+
+        // 2분 뒤: 1m 창은 비어 있음
+        assertNull(stats.current(T0 + 200_000).get("1m").get("cpuTemp").avg());
+    }
+}
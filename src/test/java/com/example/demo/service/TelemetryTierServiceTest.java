@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TelemetryTierServiceTest {
+
+    private static final long T0 = 1_760_000_000_000L;
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TelemetryLatencyRecorder latency = new TelemetryLatencyRecorder(registry);
+    private final FanBridgeService bridge = new FanBridgeService("ws://localhost:1", 3000, 1000, false, null, registry, latency);
+    private final TelemetryService telemetry = new TelemetryService(bridge, new ObjectMapper(), registry, latency,
+            new TelemetryStatsService(bridge), TelemetryDeadband.NONE);
+    private final StompSubscriptionTracker subscriptions = new StompSubscriptionTracker(registry);
+    private final TelemetryTierService tiers = new TelemetryTierService(
+            new SimpMessagingTemplate((message, timeout) -> sent.add(SimpMessageHeaderAccessor.wrap(message).getDestination())),
+            telemetry, bridge, subscriptions, registry);
+
+    @Test
+    void tiersWithoutSubscribersAreSkipped() {
+        tiers.tick(frame(60), T0);
+        tiers.tick(frame(61), T0 + 1000);
+        assertEquals(List.of(), sent);
+    }
+
+    @Test
+    void slowTierSendsAtMostOncePerPeriod() {
+        subscribe("s1", TelemetryTierService.Tier.NORMAL);
+        subscribe("s2", TelemetryTierService.Tier.SLOW);
+
+        // 구독 직후 첫 틱은 두 등급 모두 현재 스냅샷
+        tiers.tick(frame(60), T0);
+        assertEquals(2, sent.size());
+
+        // 1초마다 값이 바뀌면 1hz 는 매번, 0.1hz 는 10초가 지나야 한 번
+        for (int s = 1; s <= 10; s++) tiers.tick(frame(60 + s), T0 + s * 1000L);
+        assertEquals(11, count(TelemetryTierService.Tier.NORMAL));
+        assertEquals(2, count(TelemetryTierService.Tier.SLOW));
+
+        // 바뀐 것이 없으면 어느 등급도 보내지 않음
+        TelemetryService.Snapshot same = telemetry.publishLocal();
+        tiers.tick(same, T0 + 30_000);
+        assertEquals(13, sent.size());
+        assertEquals(11.0, registry.get("fan.telemetry.tier.sent").tag("tier", "1hz").counter().count());
+    }
+
+    @Test
+    void realtimeFollowsEverySnapshotAndControlGoesToAllTiers() {
+        tiers.start();
+        subscribe("s1", TelemetryTierService.Tier.REALTIME);
+        subscribe("s2", TelemetryTierService.Tier.SLOW);
+        tiers.tick(frame(60), T0);
+        sent.clear();
+
+        // realtime 구독자가 있으면 프레임마다 스냅샷을 만들고 바로 전송
+        bridge.handleFrame("{\"cpuTemp\":70,\"gpuTemp\":40,\"pwm_value\":30}");
+        bridge.handleFrame("{\"cpuTemp\":71,\"gpuTemp\":40,\"pwm_value\":30}");
+        assertEquals(List.of(TelemetryTierService.Tier.REALTIME.destination(), TelemetryTierService.Tier.REALTIME.destination()), sent);
+
+        sent.clear();
+        bridge.applyLocalControl(ControlCommand.from(Map.of("mode", "MANUAL", "pwm", 55)));
+        tiers.publishNow(telemetry.publishLocal());
+        assertEquals(1, count(TelemetryTierService.Tier.REALTIME));
+        assertEquals(1, count(TelemetryTierService.Tier.SLOW));
+        tiers.stop();
+    }
+
+    private TelemetryService.Snapshot frame(int cpu) {
+        bridge.handleFrame("{\"cpuTemp\":" + cpu + ",\"gpuTemp\":40,\"pwm_value\":30}");
+        return telemetry.publishLocal();
+    }
+
+    private void subscribe(String session, TelemetryTierService.Tier tier) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        h.setSessionId(session);
+        h.setSubscriptionId("sub-0");
+        h.setDestination(tier.destination());
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], h.getMessageHeaders());
+        SessionSubscribeEvent event = new SessionSubscribeEvent(this, message);
+        subscriptions.onSubscribe(event);
+        tiers.onSubscribe(event);
+    }
+
+    private long count(TelemetryTierService.Tier tier) {
+        return sent.stream().filter(tier.destination()::equals).count();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserDto;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class UserServiceConcurrentRegisterTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void sameUsernameRegisteredOnce() throws Exception {
+        int ok = race(i -> request("racer", "racer" + i + "@example.com"));
+        assertEquals(1, ok);
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'racer'", Integer.class));
+        // 중복 검사는 INSERT 한 번으로 처리되어 COUNT 조회가 없어야 함
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void sameEmailRegisteredOnce() throws Exception {
+        int ok = race(i -> request("mailer" + i, "shared@example.com"));
+        assertEquals(1, ok);
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'shared@example.com'", Integer.class));
+    }
+
+    @Test
+    void duplicateMapsToExistingMessages() {
+        IllegalArgumentException byName = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(request("kim", "kim-other@example.com")));
+        assertEquals("이미 사용 중인 사용자 이름입니다.", byName.getMessage());
+
+        IllegalArgumentException byEmail = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(request("kimother", "kim@gmail.com")));
+        assertEquals("이미 사용 중인 이메일입니다.", byEmail.getMessage());
+    }
+
+    // THREADS 개의 가입 요청을 동시에 시작하고 성공 건수를 반환
+    private int race(IntFunction<UserDto.RegisterRequest> requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                UserDto.RegisterRequest req = requests.apply(i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        userService.register(req);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int ok = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(30, TimeUnit.SECONDS)) ok++;
+            }
+            return ok;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static UserDto.RegisterRequest request(String username, String email) {
+        UserDto.RegisterRequest r = new UserDto.RegisterRequest();
+        r.setUsername(username);
+        r.setPassword("pass123");
+        r.setName("테스트");
+        r.setEmail(email);
+        return r;
+    }
+}
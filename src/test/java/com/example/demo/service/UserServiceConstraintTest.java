@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 중복 가입 판별: 위반된 UNIQUE 제약 이름을 SQLException 에서 대소문자 구분 없이 찾음
+ */
+class UserServiceConstraintTest {
+
+    @Test
+    void constraintNameIsMatchedCaseInsensitively() {
+        // H2: 대문자 이름
+        assertEquals(UserServiceImpl.UK_USERS_EMAIL, UserServiceImpl.violatedConstraint(duplicate(
+                "Unique index or primary key violation: \"PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)\"", "23505")));
+        // PostgreSQL: 소문자 이름
+        assertEquals(UserServiceImpl.UK_USERS_USERNAME, UserServiceImpl.violatedConstraint(duplicate(
+                "duplicate key value violates unique constraint \"uk_users_username\"", "23505")));
+        // MySQL: SQLState 23000, 혼합 표기
+        assertEquals(UserServiceImpl.UK_USERS_EMAIL, UserServiceImpl.violatedConstraint(duplicate(
+                "Duplicate entry 'kim@gmail.com' for key 'users.Uk_Users_Email'", "23000")));
+    }
+
+    @Test
+    void unknownOrNonIntegrityCauseIsNotGuessed() {
+        assertNull(UserServiceImpl.violatedConstraint(duplicate("duplicate key value violates unique constraint \"users_pkey\"", "23505")));
+        assertNull(UserServiceImpl.violatedConstraint(duplicate("uk_users_email", "08006")));
+        assertNull(UserServiceImpl.violatedConstraint(new DuplicateKeyException("uk_users_email")));
+    }
+
+    private static DuplicateKeyException duplicate(String message, String sqlState) {
+        return new DuplicateKeyException("INSERT INTO users", new SQLException(message, sqlState));
+    }
+}